@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Startup benchmark: time to first request and resident memory of the default build against the
+# production build (Spring AOT, class-data sharing archive, lazy initialization; see pom.xml).
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each variant is started "runs" times (default 5). Time to first request runs from launching the
+# JVM to the first 200 from /dashboard/summary, which goes through the database; RSS is read right
+# after it. The application needs its database: point it elsewhere with SPRING_DATASOURCE_URL,
+# SPRING_DATASOURCE_USERNAME and SPRING_DATASOURCE_PASSWORD. Linux only (reads /proc).
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+PROBE="http://localhost:$PORT/dashboard/summary"
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK="$ROOT/target/startup-benchmark"
+
+# Packages the application with the given Maven options and extracts it to $WORK/<name>,
+# the layout the JVM needs to use a class-data sharing archive
+build() {
+    local name=$1
+    shift
+    echo "Building $name" >&2
+    mvn -B -q -f "$ROOT/pom.xml" -DskipTests "$@" clean package >&2
+    rm -rf "${WORK:?}/$name"
+    java -Djarmode=tools -jar "$ROOT"/target/expenseTracker-*.jar extract --destination "$WORK/$name" >&2
+    ls "$WORK/$name"/expenseTracker-*.jar
+}
+
+# Starts the application once with the given JVM options and application arguments and prints
+# "<milliseconds to first request> <RSS in KB>"
+measure() {
+    local jar=$1 jvm_options=$2 app_arguments=$3
+    local started pid elapsed rss
+    started=$(date +%s%N)
+    # shellcheck disable=SC2086
+    java $jvm_options -jar "$jar" --server.port="$PORT" $app_arguments >"$WORK/last-run.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$PROBE" || true)" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited, see $WORK/last-run.log" >&2
+            exit 1
+        fi
+        if [ $(( ($(date +%s%N) - started) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+            kill "$pid"
+            echo "No answer within ${TIMEOUT_SECONDS}s, see $WORK/last-run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - started) / 1000000 ))
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+# Runs one variant RUNS times and prints its medians
+benchmark() {
+    local label=$1 jar=$2 jvm_options=$3 app_arguments=$4
+    local times=() memory=() result
+    for ((run = 1; run <= RUNS; run++)); do
+        result=$(measure "$jar" "$jvm_options" "$app_arguments")
+        echo "  $label run $run: ${result% *} ms, ${result#* } KB" >&2
+        times+=("${result% *}")
+        memory+=("${result#* }")
+    done
+    printf '%-12s %10s ms %10s MB\n' "$label" "$(median "${times[@]}")" "$(( $(median "${memory[@]}") / 1024 ))"
+}
+
+median() {
+    printf '%s\n' "$@" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+mkdir -p "$WORK"
+default_jar=$(build default)
+production_jar=$(build production -Pproduction)
+
+# Training run: the context is refreshed and closed, and the classes it loaded are dumped to the archive
+echo "Training the class-data sharing archive" >&2
+archive="$(dirname "$production_jar")/application.jsa"
+java -XX:ArchiveClassesAtExit="$archive" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$production_jar" --spring.profiles.active=production >"$WORK/training.log" 2>&1
+
+production_options="-XX:SharedArchiveFile=$archive -Dspring.aot.enabled=true"
+echo "Production instances start with:" >&2
+echo "  java $production_options -jar $(basename "$production_jar") --spring.profiles.active=production" >&2
+
+printf '\n%-12s %13s %13s\n' "variant" "first request" "RSS"
+benchmark default "$default_jar" "" ""
+benchmark production "$production_jar" "$production_options" "--spring.profiles.active=production"
@@ -0,0 +1,51 @@
+package com.Vivek.expenseTracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Dashboard aggregates. The cold variants clear the aggregate cache first, so they measure the
+// rollup queries; the cached one measures what a repeat dashboard load costs.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateBenchmarks {
+
+    @Benchmark
+    public Map<String, Double> totalExpenses(BenchmarkDatabase db) {
+        db.aggregateCache.clear();
+        return db.transactionService.getTotalExpenses();
+    }
+
+    @Benchmark
+    public Map<String, Double> totalExpensesCached(BenchmarkDatabase db) {
+        return db.transactionService.getTotalExpenses();
+    }
+
+    @Benchmark
+    public Map<String, Double> expensesByMonth(BenchmarkDatabase db) {
+        db.aggregateCache.clear();
+        return db.transactionService.getTotalExpensesByMonth();
+    }
+
+    @Benchmark
+    public Map<String, Double> incomesByMonth(BenchmarkDatabase db) {
+        db.aggregateCache.clear();
+        return db.transactionService.getTotalIncomesByMonth();
+    }
+
+    @Benchmark
+    public Map<String, Integer> transactionsByMonth(BenchmarkDatabase db) {
+        db.aggregateCache.clear();
+        return db.transactionService.getTotalTransactionsByMonth();
+    }
+}
@@ -0,0 +1,119 @@
+package com.Vivek.expenseTracker.benchmarks;
+
+import com.Vivek.expenseTracker.ExpenseTrackerApplication;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.services.AggregateCache;
+import com.Vivek.expenseTracker.services.CategoryCache;
+import com.Vivek.expenseTracker.services.RollupService;
+import com.Vivek.expenseTracker.services.TransactionRepository;
+import com.Vivek.expenseTracker.services.TransactionService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// The application context over an H2 database seeded with "rows" transactions, shared by every
+// benchmark of a trial. Seeding is deterministic, dates included (a fixed five years, not the ones
+// before today), so results of different days and releases measure the same windows. It is skipped
+// when the database file already holds those rows.
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final LocalDate FIRST_DATE = LocalDate.of(2021, 1, 1);
+    static final LocalDate LAST_DATE = LocalDate.of(2025, 12, 31);
+    private static final int CATEGORIES = 20;
+    private static final int BATCH = 10_000;
+    private static final String[] WORDS = {"Coffee", "Groceries", "Rent", "Salary", "Fuel", "Cinema", "Pharmacy",
+            "Restaurant", "Electricity", "Internet", "Gym", "Books", "Taxi", "Insurance", "Bonus", "Gift"};
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    TransactionService transactionService;
+    TransactionRepository transactionRepository;
+    AggregateCache aggregateCache;
+    List<Category> categories;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=benchmark", "benchmark.rows=" + rows)
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        aggregateCache = context.getBean(AggregateCache.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // A file seeded before the dates were fixed has the rows, but not over these dates
+        Boolean seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) = ? AND MIN(date) = ? AND MAX(date) <= ? FROM transactions", Boolean.class,
+                rows, Date.valueOf(FIRST_DATE), Date.valueOf(LAST_DATE));
+        if (!Boolean.TRUE.equals(seeded)) {
+            seed(jdbcTemplate);
+            context.getBean(RollupService.class).rebuild();
+        }
+        categories = context.getBean(CategoryCache.class).refresh().all();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Clears every table derived from the ledger too; the caller rebuilds the rollups afterwards
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM daily_rollups");
+        jdbcTemplate.update("DELETE FROM monthly_category_expenses");
+        jdbcTemplate.update("DELETE FROM ingestion_keys");
+        jdbcTemplate.update("DELETE FROM archived_years");
+        jdbcTemplate.update("DELETE FROM transactions_archive");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM categories");
+        for (int i = 1; i <= CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO categories (id, name, created_at, updated_at) VALUES (?, ?, NOW(), NOW())",
+                    (long) i, WORDS[i % WORDS.length] + " " + i);
+        }
+
+        // Rows are spread evenly over five years and inserted in date order, like a real ledger grows
+        Random random = new Random(42);
+        long days = LAST_DATE.toEpochDay() - FIRST_DATE.toEpochDay();
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= rows; id++) {
+            boolean income = random.nextInt(100) < 15;
+            double amount = Math.round((income ? 500 + random.nextDouble() * 4500 : 1 + random.nextDouble() * 250) * 100) / 100.0;
+            batch.add(new Object[]{id, amount, Date.valueOf(FIRST_DATE.plusDays(days * (id - 1) / rows)),
+                    WORDS[random.nextInt(WORDS.length)] + " #" + id, income ? "INCOME" : "EXPENSE",
+                    (long) (1 + random.nextInt(CATEGORIES))});
+            if (batch.size() == BATCH) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, batch);
+
+        // Keep Hibernate's pooled sequences clear of the seeded ids
+        jdbcTemplate.execute("ALTER SEQUENCE transactions_seq RESTART WITH " + (rows + 51L));
+        jdbcTemplate.execute("ALTER SEQUENCE categories_seq RESTART WITH " + (CATEGORIES + 51L));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transactions (id, amount, date, description, transaction_type, category_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+}
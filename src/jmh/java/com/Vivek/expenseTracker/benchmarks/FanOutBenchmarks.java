@@ -0,0 +1,82 @@
+package com.Vivek.expenseTracker.benchmarks;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.services.AggregateFanOut;
+import com.Vivek.expenseTracker.services.DailyRollupRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// The weekly/monthly/yearly sums behind /total-expenses, one after another versus fanned out.
+// Both bypass the aggregate cache. The embedded database has no network round trip, and its queries
+// compete for the same CPU, so with roundTripMillis=0 this mostly measures the fan-out overhead;
+// a simulated round trip per query shows the latency a networked MySQL would save.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmarks {
+
+    @Param({"0", "2"})
+    public long roundTripMillis;
+
+    private DailyRollupRepository rollupRepository;
+    private AggregateFanOut fanOut;
+    private LocalDate today;
+    private LocalDate[] periodStarts;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        rollupRepository = db.context.getBean(DailyRollupRepository.class);
+        fanOut = db.context.getBean(AggregateFanOut.class);
+        today = BenchmarkDatabase.LAST_DATE;
+        periodStarts = new LocalDate[]{today.with(DayOfWeek.MONDAY), today.with(TemporalAdjusters.firstDayOfMonth()),
+                today.with(TemporalAdjusters.firstDayOfYear())};
+    }
+
+    @Benchmark
+    public BigDecimal[] sequential() throws InterruptedException {
+        BigDecimal[] sums = new BigDecimal[periodStarts.length];
+        for (int i = 0; i < periodStarts.length; i++) {
+            sums[i] = sum(periodStarts[i]);
+        }
+        return sums;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> fannedOut() {
+        Map<String, Callable<BigDecimal>> tasks = new LinkedHashMap<>();
+        for (int i = 0; i < periodStarts.length; i++) {
+            LocalDate start = periodStarts[i];
+            tasks.put("period" + i, () -> sum(start));
+        }
+        return fanOut.invokeAll(tasks);
+    }
+
+    private BigDecimal sum(LocalDate start) throws InterruptedException {
+        if (roundTripMillis > 0) {
+            Thread.sleep(roundTripMillis);
+        }
+        return rollupRepository.sumAmountBetweenDates(Transaction.TransactionType.EXPENSE, start, today);
+    }
+}
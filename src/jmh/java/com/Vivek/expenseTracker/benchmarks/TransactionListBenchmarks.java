@@ -0,0 +1,84 @@
+package com.Vivek.expenseTracker.benchmarks;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// The filtered transactions list, per filter mix and page depth: findFilteredTransactions is the
+// entity query, findTransactions the projection the list page uses.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionListBenchmarks {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"none", "description", "amount", "date-range", "combined"})
+    public String filter;
+
+    @Param({"first", "middle", "last"})
+    public String depth;
+
+    private String description;
+    private BigDecimal amount;
+    private String amountFilter;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void choosePage(BenchmarkDatabase db) {
+        if (filter.equals("description") || filter.equals("combined")) {
+            description = "coffee";
+        }
+        if (filter.equals("amount") || filter.equals("combined")) {
+            amount = new BigDecimal("100");
+            amountFilter = ">=";
+        }
+        if (filter.equals("date-range") || filter.equals("combined")) {
+            startDate = BenchmarkDatabase.LAST_DATE.minusYears(1);
+            endDate = BenchmarkDatabase.LAST_DATE;
+        }
+
+        long total = db.transactionService.findTransactions(description, amount, amountFilter, startDate, endDate,
+                PageRequest.of(0, PAGE_SIZE)).getTotalElements();
+        int lastPage = (int) Math.max(0, (total - 1) / PAGE_SIZE);
+        int page = switch (depth) {
+            case "middle" -> lastPage / 2;
+            case "last" -> lastPage;
+            default -> 0;
+        };
+        pageable = PageRequest.of(page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Transaction> findFilteredTransactions(BenchmarkDatabase db) {
+        return db.transactionRepository.findFilteredTransactions(description, amount, amountFilter, startDate, endDate, pageable);
+    }
+
+    @Benchmark
+    public Page<TransactionView> findTransactions(BenchmarkDatabase db) {
+        return db.transactionService.findTransactions(description, amount, amountFilter, startDate, endDate, pageable);
+    }
+}
@@ -0,0 +1,39 @@
+package com.Vivek.expenseTracker.benchmarks;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One transaction saved through the service: insert, rollup delta and ledger event in one database transaction.
+// The rows it adds are negligible next to the seeded ones, and the next seeding of the same file resets them.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSaveBenchmarks {
+
+    private long counter;
+
+    @Benchmark
+    public Transaction save(BenchmarkDatabase db) {
+        counter++;
+        Transaction transaction = new Transaction();
+        transaction.setAmount(1.0 + counter % 200);
+        transaction.setDate(BenchmarkDatabase.LAST_DATE.minusDays(counter % 365));
+        transaction.setDescription("Benchmark " + counter);
+        transaction.setTransactionType(counter % 7 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+        transaction.setCategory(db.categories.get((int) (counter % db.categories.size())));
+        return db.transactionService.save(transaction);
+    }
+}
@@ -0,0 +1,395 @@
+package com.Vivek.expenseTracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load driver for a running application. Each client is a virtual thread that sends
+// one request at a time, picking the next one from the workload mix: dashboard polls (with the
+// ETag of its previous poll, as the page does), list pages, filtered lists, single rows, adds and
+// edits. Requests during the warmup are not counted. At the end it prints, per endpoint, the
+// requests, errors, throughput and p50/p99/p99.9/max latency. Options are name=value arguments:
+//   url=http://localhost:8080 clients=16 duration=60s warmup=10s think-time=0ms seed=42
+//   mix=summary:25,by-month:10,list:15,filter:15,view:15,add:12,edit:8
+// Categories and row ids come from the application (/categories/budgets, and an export of the
+// last 90 days), so seed it first, e.g. with --synthetic-transactions (SyntheticDataRunner).
+public class LoadDriver {
+
+    private static final Map<String, Integer> DEFAULT_MIX = defaultMix();
+    // Words of the synthetic descriptions, for filtered lists that find something
+    private static final String[] SEARCH_WORDS = {"Starbucks", "Amazon", "Uber", "Shell", "Costco", "Netflix",
+            "Walgreens", "Marriott", "Coffee", "rent", "#12", "#45"};
+    private static final int MAX_IDS = 10_000;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String url;
+    private final int clients;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration thinkTime;
+    private final long seed;
+    private final List<String> operations = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private List<Long> categoryIds;
+    private List<Long> transactionIds;
+    private long recordFrom;
+
+    LoadDriver(Map<String, String> options) {
+        this.url = options.getOrDefault("url", "http://localhost:8080").replaceAll("/$", "");
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "16"));
+        this.duration = duration(options.getOrDefault("duration", "60s"));
+        this.warmup = duration(options.getOrDefault("warmup", "10s"));
+        this.thinkTime = duration(options.getOrDefault("think-time", "0ms"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        Map<String, Integer> mix = options.containsKey("mix") ? mix(options.get("mix")) : DEFAULT_MIX;
+        cumulativeWeights = new double[mix.size()];
+        double total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+        for (String operation : List.of("summary", "by-month", "list", "filter", "view", "add", "edit")) {
+            endpoints.put(operation, new Endpoint(label(operation)));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                System.out.println("Usage: LoadDriver [name=value ...], see the class comment for the options");
+                return;
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    void run() throws Exception {
+        discover();
+        System.out.printf("%d clients against %s for %d s after a %d s warmup; %d categories, %d known rows%n",
+                clients, url, duration.toSeconds(), warmup.toSeconds(), categoryIds.size(), transactionIds.size());
+
+        long started = System.nanoTime();
+        recordFrom = started + warmup.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            threads.add(Thread.ofVirtual().name("load-client-" + i).start(() -> runClient(random, stopAt)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report(Duration.ofNanos(stopAt - recordFrom));
+    }
+
+    private void runClient(SplittableRandom random, long stopAt) {
+        Client state = new Client();
+        long started;
+        while ((started = System.nanoTime()) < stopAt) {
+            String operation = pick(random);
+            try {
+                send(operation, random, state);
+            } catch (IOException e) {
+                endpoint(operation).record(started, 0, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!thinkTime.isZero()) {
+                try {
+                    Thread.sleep(thinkTime);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void send(String operation, SplittableRandom random, Client state) throws IOException, InterruptedException {
+        switch (operation) {
+            case "summary" -> {
+                HttpRequest.Builder request = get("/dashboard/summary");
+                if (state.summaryETag != null) {
+                    request.header("If-None-Match", state.summaryETag);
+                }
+                HttpResponse<Void> response = timed(operation, request.build());
+                response.headers().firstValue("ETag").ifPresent(etag -> state.summaryETag = etag);
+            }
+            case "by-month" -> timed(operation, get("/total-expenses-by-month").build());
+            case "list" -> timed(operation, get("/transactions?page=" + random.nextInt(20) + "&size=10").build());
+            case "filter" -> timed(operation, get("/transactions?" + filter(random)).build());
+            case "view" -> {
+                if (transactionIds.isEmpty()) {
+                    send("add", random, state);
+                    return;
+                }
+                timed(operation, get("/transactions/view/" + anyOf(transactionIds, random)).build());
+            }
+            case "add" -> {
+                if (categoryIds.isEmpty()) {
+                    send("summary", random, state);
+                    return;
+                }
+                String description = SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)] + " load test";
+                timed(operation, post("/transactions/add", form(Math.round((1 + random.nextDouble() * 120) * 100) / 100.0,
+                        LocalDate.now().minusDays(random.nextInt(30)).toString(), description,
+                        random.nextInt(10) == 0 ? "INCOME" : "EXPENSE", anyOf(categoryIds, random))));
+            }
+            case "edit" -> {
+                if (transactionIds.isEmpty()) {
+                    send("add", random, state);
+                    return;
+                }
+                // The form is filled from the row first, as the edit page does
+                long id = anyOf(transactionIds, random);
+                HttpResponse<InputStream> current = client.send(get("/transactions/view/" + id).build(),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                JsonNode row;
+                try (InputStream body = current.body()) {
+                    if (current.statusCode() != 200) {
+                        endpoint("view").record(System.nanoTime(), 0, false);
+                        return;
+                    }
+                    row = mapper.readTree(body);
+                }
+                double amount = Math.round(row.get("amount").asDouble() * (0.9 + random.nextDouble() * 0.2) * 100) / 100.0;
+                timed(operation, post("/transactions/edit/" + id, form(Math.max(0.01, amount), row.get("date").asText(),
+                        row.get("description").asText(), row.get("transactionType").asText(), row.get("categoryId").asLong())));
+            }
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private HttpResponse<Void> timed(String operation, HttpRequest request) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - started;
+        // Redirects after a form post and 304s to a poll are the expected answers
+        endpoint(operation).record(started, elapsed, response.statusCode() < 400);
+        return response;
+    }
+
+    // Categories from the budget overview (it lists every category), row ids from a recent export
+    private void discover() throws IOException, InterruptedException {
+        HttpResponse<String> budgets = client.send(get("/categories/budgets").build(), HttpResponse.BodyHandlers.ofString());
+        if (budgets.statusCode() != 200) {
+            throw new IllegalStateException("GET /categories/budgets answered " + budgets.statusCode() + ", is the application up?");
+        }
+        List<Long> categories = new ArrayList<>();
+        for (JsonNode category : mapper.readTree(budgets.body())) {
+            categories.add(category.get("categoryId").asLong());
+        }
+        categoryIds = List.copyOf(categories);
+
+        List<Long> ids = new ArrayList<>();
+        HttpResponse<InputStream> export = client.send(
+                get("/transactions/export?format=ndjson&startDate=" + LocalDate.now().minusDays(90)).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(export.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while (ids.size() < MAX_IDS && (line = lines.readLine()) != null) {
+                if (!line.isBlank()) {
+                    ids.add(mapper.readTree(line).get("id").asLong());
+                }
+            }
+        }
+        transactionIds = List.copyOf(ids);
+    }
+
+    private void report(Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        System.out.printf("%n%-32s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long requests = 0;
+        long errors = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            long[] latencies = endpoint.latencies();
+            requests += latencies.length;
+            errors += endpoint.errors.get();
+            if (latencies.length == 0 && endpoint.errors.get() == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-32s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.label, latencies.length, endpoint.errors.get(), latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0.0);
+        }
+        System.out.printf(Locale.ROOT, "%-32s %10d %8d %10.1f%n", "total", requests, errors, requests / seconds);
+    }
+
+    // Nearest-rank percentile of sorted nanosecond latencies, in milliseconds
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private String filter(SplittableRandom random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> "description=" + encode(SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)]);
+            case 1 -> "startDate=" + LocalDate.now().minusDays(30) + "&endDate=" + LocalDate.now();
+            case 2 -> "amount=" + (50 + random.nextInt(500)) + "&amountFilter=" + encode(">=");
+            // Keyset pages over a year, deep pages included
+            default -> "mode=seek&startDate=" + LocalDate.now().minusYears(1) + "&description="
+                    + encode(SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)]);
+        };
+    }
+
+    private String pick(SplittableRandom random) {
+        double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, point);
+        return operations.get(index >= 0 ? index : -index - 1);
+    }
+
+    private Endpoint endpoint(String operation) {
+        return endpoints.get(operation);
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path)).timeout(Duration.ofSeconds(30)).GET();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private static String form(double amount, String date, String description, String type, long categoryId) {
+        return "amount=" + amount + "&date=" + date + "&description=" + encode(description)
+                + "&transactionType=" + type + "&category=" + categoryId;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long anyOf(List<Long> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String label(String operation) {
+        return switch (operation) {
+            case "summary" -> "GET /dashboard/summary";
+            case "by-month" -> "GET /total-expenses-by-month";
+            case "list" -> "GET /transactions";
+            case "filter" -> "GET /transactions (filtered)";
+            case "view" -> "GET /transactions/view/{id}";
+            case "add" -> "POST /transactions/add";
+            case "edit" -> "POST /transactions/edit/{id}";
+            default -> operation;
+        };
+    }
+
+    private static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("summary", 25);
+        mix.put("by-month", 10);
+        mix.put("list", 15);
+        mix.put("filter", 15);
+        mix.put("view", 15);
+        mix.put("add", 12);
+        mix.put("edit", 8);
+        return mix;
+    }
+
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2 || !DEFAULT_MIX.containsKey(weight[0])) {
+                throw new IllegalArgumentException("Expected operation:weight with an operation of " + DEFAULT_MIX.keySet() + ", got " + part);
+            }
+            mix.put(weight[0], Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+
+    // "60s", "500ms", "2m"
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Expected a duration like 60s, 500ms or 2m, got " + value);
+    }
+
+    // What one client keeps between requests
+    private static final class Client {
+        private String summaryETag;
+    }
+
+    // Latencies of one endpoint, appended by every client
+    private final class Endpoint {
+        private final String label;
+        private final AtomicLong errors = new AtomicLong();
+        private long[] values = new long[1024];
+        private int size;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        // Requests started during the warmup are not counted
+        void record(long started, long nanos, boolean ok) {
+            if (started < recordFrom) {
+                return;
+            }
+            if (!ok) {
+                errors.incrementAndGet();
+                return;
+            }
+            synchronized (this) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = nanos;
+            }
+        }
+
+        synchronized long[] latencies() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package com.Vivek.expenseTracker;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
 
 @SpringBootApplication
 public class ExpenseTrackerApplication {
@@ -11,4 +19,13 @@ public class ExpenseTrackerApplication {
 		SpringApplication.run(ExpenseTrackerApplication.class, args);
 	}
 
+	// With spring.main.lazy-initialization (the production profile) the database layer is still
+	// created at boot: a bad migration or an unreachable database fails the start instead of the
+	// first request, and no request waits for Hibernate to bootstrap
+	@Bean
+	static LazyInitializationExcludeFilter eagerDatabaseLayer() {
+		return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class, FlywayMigrationInitializer.class,
+				EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+	}
+
 }
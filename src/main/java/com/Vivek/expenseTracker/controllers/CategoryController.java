@@ -1,26 +1,44 @@
 package com.Vivek.expenseTracker.controllers;
 
+import com.Vivek.expenseTracker.models.BudgetAlert;
+import com.Vivek.expenseTracker.models.BudgetUtilization;
+import com.Vivek.expenseTracker.models.BulkReport;
 import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.services.BudgetService;
 import com.Vivek.expenseTracker.services.CategoryService;
+import com.Vivek.expenseTracker.services.TransactionBulkService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
 @Controller
 public class CategoryController {
     private final CategoryService categoryService;
+    private final TransactionBulkService bulkService;
+    private final BudgetService budgetService;
 
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, TransactionBulkService bulkService, BudgetService budgetService) {
         this.categoryService = categoryService;
+        this.bulkService = bulkService;
+        this.budgetService = budgetService;
     }
 
     // Endpoint to get categories with pagination and optional filtering by name
@@ -95,12 +113,61 @@ public class CategoryController {
     public String deleteCategory(@PathVariable Long id,
                                  RedirectAttributes redirectAttributes) {
 
-        categoryService.deleteById(id);
+        try {
+            categoryService.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            // Still referenced by transactions: merge it into another category instead
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Category still has transactions, merge it into another category to delete it");
+            return "redirect:/categories";
+        }
         redirectAttributes.addFlashAttribute("successMessage",
                 "Category deleted successfully!");
 
         return "redirect:/categories";
     }
 
+    // Month-to-date spending of every category against its budget (current month unless given),
+    // answered from the running month totals without reading any transaction
+    @GetMapping("/categories/budgets")
+    @ResponseBody
+    public ResponseEntity<List<BudgetUtilization>> getBudgetUtilization(@RequestParam(required = false)
+                                                                        @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(budgetService.utilization(month != null ? month : YearMonth.now()));
+    }
+
+    // Latest writes that took a category over its budget, newest first
+    @GetMapping("/categories/budgets/alerts")
+    @ResponseBody
+    public ResponseEntity<List<BudgetAlert>> getBudgetAlerts() {
+        return ResponseEntity.ok(budgetService.recentAlerts());
+    }
+
+    // Sets the monthly budget of a category; without an amount the budget is removed
+    @PostMapping("/categories/{id}/budget")
+    @ResponseBody
+    public ResponseEntity<BudgetUtilization> setBudget(@PathVariable Long id,
+                                                       @RequestParam(required = false) BigDecimal amount) {
+        try {
+            categoryService.setMonthlyBudget(id, amount);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.of(budgetService.utilization(YearMonth.now()).stream()
+                .filter(utilization -> utilization.categoryId().equals(id))
+                .findFirst());
+    }
+
+    // Moves every transaction of a category to another one, then deletes it. Set-based, in chunks.
+    @PostMapping("/categories/{id}/merge")
+    @ResponseBody
+    public ResponseEntity<BulkReport> mergeCategory(@PathVariable Long id, @RequestParam("into") Long targetId) {
+        try {
+            return ResponseEntity.ok(bulkService.mergeCategory(id, targetId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
 
 }
\ No newline at end of file
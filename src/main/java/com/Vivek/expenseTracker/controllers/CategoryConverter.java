@@ -0,0 +1,30 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.services.CategoryCache;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+// Binds the category id posted by the transaction forms to a Category from the cache,
+// instead of the default repository lookup on every submit
+@Component
+public class CategoryConverter implements Converter<String, Category> {
+
+    private final CategoryCache categoryCache;
+
+    public CategoryConverter(CategoryCache categoryCache) {
+        this.categoryCache = categoryCache;
+    }
+
+    @Override
+    public Category convert(String source) {
+        if (source.isBlank()) {
+            return null;
+        }
+        try {
+            return categoryCache.findById(Long.valueOf(source.trim())).orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.services.LedgerVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Set;
+
+// Conditional GET for the dashboard, report and transaction JSON endpoints. The ETag is the ledger
+// version plus the day (the period totals roll over at midnight), so If-None-Match is answered
+// with 304 before the controller, and its queries, run. Cache-Control lets browsers and proxies
+// keep the body but makes them revalidate every time. The version is shared by the instances, so
+// a client moving between them keeps its validators (see LedgerVersion).
+// With replicas, validators are held back for the read-your-writes window after a write: a lagging
+// replica could otherwise serve old figures under the new version.
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private static final Set<String> PATHS = Set.of(
+            "/dashboard/summary",
+            "/total-expenses", "/total-incomes", "/total-transactions",
+            "/total-expenses-by-month", "/total-incomes-by-month", "/total-transactions-by-month",
+            "/reports/categories", "/reports/balance", "/categories/budgets");
+    private static final String VIEW_PREFIX = "/transactions/view/";
+
+    private final LedgerVersion ledgerVersion;
+    private final long settleMillis;
+
+    public ConditionalGetFilter(LedgerVersion ledgerVersion,
+                                @Value("${expense-tracker.datasource.replicas[0].url:}") String replicaUrl,
+                                @Value("${expense-tracker.datasource.read-your-writes-window:5s}") Duration window) {
+        this.ledgerVersion = ledgerVersion;
+        this.settleMillis = replicaUrl.isEmpty() ? 0 : window.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !PATHS.contains(path) && !path.startsWith(VIEW_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        // Read before the controller runs: a write during the request leaves an older tag, never a newer one
+        long version = ledgerVersion.current();
+        long changedAt = ledgerVersion.changedAt();
+        if (System.currentTimeMillis() - changedAt >= settleMillis) {
+            LocalDate today = LocalDate.now();
+            String etag = "\"" + version + "-" + today.toEpochDay() + "\"";
+            long midnight = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (new ServletWebRequest(request, response).checkNotModified(etag, Math.max(changedAt, midnight))) {
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
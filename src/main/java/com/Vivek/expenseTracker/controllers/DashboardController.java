@@ -1,19 +1,54 @@
 package com.Vivek.expenseTracker.controllers;
+import com.Vivek.expenseTracker.models.CategoryReport;
+import com.Vivek.expenseTracker.models.DashboardSummary;
+import com.Vivek.expenseTracker.models.RunningBalance;
+import com.Vivek.expenseTracker.services.AggregateCache;
+import com.Vivek.expenseTracker.services.AggregateFanOut;
+import com.Vivek.expenseTracker.services.CategoryReportService;
+import com.Vivek.expenseTracker.services.ColumnarLedger;
+import com.Vivek.expenseTracker.services.DashboardStream;
 import com.Vivek.expenseTracker.services.TransactionService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class DashboardController {
     @Autowired
     private TransactionService transactionService;
+
+    @Autowired
+    private AggregateCache aggregateCache;
+
+    @Autowired
+    private AggregateFanOut aggregateFanOut;
+
+    @Autowired
+    private ColumnarLedger columnarLedger;
+
+    @Autowired
+    private CategoryReportService categoryReportService;
+
+    @Autowired
+    private DashboardStream dashboardStream;
     // This method maps the root URL ("/") to the dashboard view
     @GetMapping("/")
     public String showDashboard(Model model,HttpServletRequest request) {
@@ -31,27 +66,94 @@ public class DashboardController {
         return "reports";
     }
 
-    // Method to retrieve total expenses for monthly, weekly, and yearly via AJAX
+    // Spend and income per category for every day, week, month or year of the range (the current
+    // year by default). top=N collapses the categories after the N biggest spenders into "other".
+    @GetMapping("/reports/categories")
+    @ResponseBody
+    public ResponseEntity<CategoryReport> getCategoryReport(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+                                                            @RequestParam(defaultValue = "month") String granularity,
+                                                            @RequestParam(required = false) Integer top,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        LocalDate today = LocalDate.now();
+        try {
+            return ResponseEntity.ok(categoryReportService.report(
+                    startDate != null ? startDate : today.withDayOfYear(1),
+                    endDate != null ? endDate : today.withDayOfYear(today.lengthOfYear()),
+                    CategoryReport.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT)),
+                    top, page, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // Balance at the end of every day of the range (the current year up to today by default)
+    @GetMapping("/reports/balance")
+    @ResponseBody
+    public ResponseEntity<RunningBalance> getRunningBalance(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        try {
+            return ResponseEntity.ok(categoryReportService.runningBalance(
+                    startDate != null ? startDate : today.withDayOfYear(1),
+                    endDate != null ? endDate : today));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // All dashboard figures in one response, replacing the six /total-* calls on page load
+    @GetMapping("/dashboard/summary")
+    @ResponseBody
+    public ResponseEntity<DashboardSummary> getDashboardSummary() {
+        return ResponseEntity.ok(transactionService.getDashboardSummary());
+    }
+
+    // Live dashboard: a "summary" event, then a "delta" event per push interval in which the
+    // figures moved. Browsers resend Last-Event-ID when they reconnect and get only what they missed.
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return dashboardStream.subscribe(lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+
+    // Hit/miss/eviction counters of the aggregate cache, used to size it
+    @GetMapping("/dashboard/cache-stats")
+    @ResponseBody
+    public ResponseEntity<AggregateCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(aggregateCache.stats());
+    }
+
+    // Size and state of the in-memory columnar ledger
+    @GetMapping("/dashboard/analytics-stats")
+    @ResponseBody
+    public ResponseEntity<ColumnarLedger.Stats> getAnalyticsStats() {
+        return ResponseEntity.ok(columnarLedger.stats());
+    }
+
+    // Method to retrieve total expenses for monthly, weekly, and yearly via AJAX.
+    // The period queries run concurrently; the request thread is released while they do.
     @GetMapping("/total-expenses")
     @ResponseBody
-    public ResponseEntity<Map<String, Double>> getTotalExpenses() {
-        Map<String, Double> expenses = transactionService.getTotalExpenses();
-        return ResponseEntity.ok(expenses);
+    public DeferredResult<ResponseEntity<Map<String, Double>>> getTotalExpenses() {
+        return deferred(transactionService.getTotalExpensesAsync());
     }
 
     @GetMapping("/total-incomes")
     @ResponseBody
-    public ResponseEntity<Map<String, Double>> getTotalIncomes() {
-        Map<String, Double> incomes = transactionService.getTotalIncomes();
-        return ResponseEntity.ok(incomes);
+    public DeferredResult<ResponseEntity<Map<String, Double>>> getTotalIncomes() {
+        return deferred(transactionService.getTotalIncomesAsync());
     }
 
 
     @GetMapping("/total-transactions")
     @ResponseBody
-    public ResponseEntity<Map<String, Double>> getTotalTransactions() {
-        Map<String, Double> incomes = transactionService.getTotalTransactions();
-        return ResponseEntity.ok(incomes);
+    public DeferredResult<ResponseEntity<Map<String, Double>>> getTotalTransactions() {
+        return deferred(transactionService.getTotalTransactionsAsync());
     }
 
 
@@ -79,10 +181,19 @@ public class DashboardController {
         return ResponseEntity.ok(transactionsByMonth);
     }
 
-
-
-
-
-
-
+    // Completes the response from the future; a timeout, or an error such as the client going away,
+    // cancels the queries that are still running
+    private <T> DeferredResult<ResponseEntity<T>> deferred(CompletableFuture<T> future) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(aggregateFanOut.timeout().toMillis());
+        result.onTimeout(() -> future.cancel(true));
+        result.onError(error -> future.cancel(true));
+        future.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.setResult(ResponseEntity.ok(value));
+            } else {
+                result.setErrorResult(failure);
+            }
+        });
+        return result;
+    }
 }
@@ -0,0 +1,75 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.services.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Read-your-writes with replicas: a write request sets a cookie, and the same browser's requests
+// read from the primary until it expires, giving the replicas the window to catch up.
+// Writes are the unsafe HTTP methods plus the GET delete links.
+@Component
+@ConditionalOnProperty("expense-tracker.datasource.replicas[0].url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "primary-reads-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(@Value("${expense-tracker.datasource.read-your-writes-window:5s}") Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = isWrite(request);
+        if (write) {
+            // Set before the request runs: the response may be committed (a redirect) by the time it ends
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+
+        ReadYourWrites.pin(write || pinnedUntil(request) > now);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.pin(false);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean safe = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        return !safe || request.getRequestURI().contains("/delete/");
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
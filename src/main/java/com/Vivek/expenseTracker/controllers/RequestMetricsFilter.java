@@ -0,0 +1,134 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.services.SqlStatementRecorder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Per-endpoint SQL metrics, next to the http.server.requests latency histogram that Spring records:
+// statements per request and time spent in JDBC, tagged like http.server.requests.
+// Requests slower than the threshold log the statements they ran, with timings.
+// Asynchronous requests (DeferredResult) are recorded when the dispatch that completes them ends,
+// with the statements of the fanned-out queries (see AggregateFanOut). Work finished on another
+// thread without the recording (streamed exports) is not attributed to the request.
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    // Carry an asynchronous request's recording and start time over to its completing dispatch
+    private static final String RECORDING_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".recording";
+    private static final String STARTED_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".started";
+
+    private final SqlStatementRecorder recorder;
+    private final MeterRegistry registry;
+    private final Duration slowRequestThreshold;
+
+    public RequestMetricsFilter(SqlStatementRecorder recorder, MeterRegistry registry,
+                                @Value("${expense-tracker.metrics.slow-request-threshold:500ms}") Duration slowRequestThreshold) {
+        this.recorder = recorder;
+        this.registry = registry;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started;
+        SqlStatementRecorder.Recording recording;
+        if (isAsyncDispatch(request) && request.getAttribute(RECORDING_ATTRIBUTE) instanceof SqlStatementRecorder.Recording resumed) {
+            started = (Long) request.getAttribute(STARTED_ATTRIBUTE);
+            recording = resumed;
+            recorder.attach(recording);
+        } else {
+            started = System.nanoTime();
+            recording = recorder.start();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            recorder.stop();
+            if (isAsyncStarted(request)) {
+                // The handler's work goes on after this dispatch returns
+                request.setAttribute(RECORDING_ATTRIBUTE, recording);
+                request.setAttribute(STARTED_ATTRIBUTE, started);
+            } else {
+                finish(request, response, started, recording);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response, long started,
+                        SqlStatementRecorder.Recording recording) {
+        long elapsed = System.nanoTime() - started;
+        // Only controller endpoints; static resources and unmatched paths are left out
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod) {
+            String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            record(request.getMethod(), uri, recording);
+            // An event stream is open for as long as its client stays, that is not a slow request
+            boolean eventStream = response.getContentType() != null
+                    && response.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+            if (elapsed >= slowRequestThreshold.toNanos() && !eventStream) {
+                logSlowRequest(request.getMethod(), request.getRequestURI(), elapsed, recording);
+            }
+        }
+    }
+
+    private void record(String method, String uri, SqlStatementRecorder.Recording recording) {
+        Tags tags = Tags.of("method", method, "uri", uri);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("JDBC statements executed per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(recording.count());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing JDBC statements per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(recording.jdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void logSlowRequest(String method, String path, long elapsedNanos, SqlStatementRecorder.Recording recording) {
+        StringBuilder message = new StringBuilder()
+                .append("Slow request ").append(method).append(' ').append(path)
+                .append(" took ").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms: ")
+                .append(recording.count()).append(" statements, ")
+                .append(TimeUnit.NANOSECONDS.toMillis(recording.jdbcNanos())).append(" ms in JDBC");
+        for (SqlStatementRecorder.Statement statement : recording.statements()) {
+            message.append(System.lineSeparator()).append(String.format("  %8.2f ms  ", statement.elapsedNanos() / 1_000_000.0))
+                    .append(statement.sql());
+            if (statement.batchSize() > 1) {
+                message.append("  [batch of ").append(statement.batchSize()).append(']');
+            }
+        }
+        if (recording.statements().size() < recording.count()) {
+            message.append(System.lineSeparator()).append("  ... ")
+                    .append(recording.count() - recording.statements().size()).append(" more");
+        }
+        log.warn(message.toString());
+    }
+}
@@ -1,43 +1,88 @@
 package com.Vivek.expenseTracker.controllers;
 
+import com.Vivek.expenseTracker.models.BulkReport;
 import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.CursorPage;
+import com.Vivek.expenseTracker.models.ImportReport;
+import com.Vivek.expenseTracker.models.IngestAck;
 import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
 import com.Vivek.expenseTracker.services.CategoryService;
-import com.Vivek.expenseTracker.services.TransactionRepository;
+import com.Vivek.expenseTracker.services.DescriptionIndex;
+import com.Vivek.expenseTracker.services.IngestionService;
+import com.Vivek.expenseTracker.services.TransactionBulkService;
+import com.Vivek.expenseTracker.services.TransactionExportService;
+import com.Vivek.expenseTracker.services.TransactionImportService;
 import com.Vivek.expenseTracker.services.TransactionService;
+import com.Vivek.expenseTracker.services.TransactionSpecifications;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/transactions")
 public class TransactionsController {
 
-    @Autowired
-    private TransactionRepository transactionRepository;
-
     @Autowired
     private TransactionService transactionService;
 
     @Autowired
     private CategoryService categoryService;
 
-    // Method to list all transactions
+    @Autowired
+    private DescriptionIndex descriptionIndex;
+
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private TransactionBulkService bulkService;
+
+    @Value("${expense-tracker.ingest.max-request-items:10000}")
+    private int maxIngestItems;
+
+    @Value("${expense-tracker.bulk.max-ids:10000}")
+    private int maxBulkIds;
+
+    // Method to list all transactions.
+    // With mode=seek (or a cursor) the list is keyset-paginated instead of using page numbers,
+    // which keeps deep pages as fast as the first one; withTotal=true adds a one-off count.
     @GetMapping
     public String listTransactions(@RequestParam(defaultValue = "0") int page,
                                    @RequestParam(defaultValue = "10") int size,
@@ -46,12 +91,33 @@ public class TransactionsController {
                                    @RequestParam(required = false) String amountFilter, // "=", "<=", ">="
                                    @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
                                    @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+                                   @RequestParam(required = false) String mode,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "false") boolean withTotal,
                                    Model model, HttpServletRequest request) {
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Transaction> transactions = transactionService.findTransactions(description, amount, amountFilter, startDate, endDate, pageable);
         model.addAttribute("requestURI", request.getRequestURI());
-        model.addAttribute("transactions", transactions);
+        if ("seek".equals(mode) || cursor != null) {
+            CursorPage<TransactionView> transactions;
+            try {
+                transactions = transactionService.findTransactionsByCursor(description, amount, amountFilter,
+                        startDate, endDate, cursor, size, withTotal);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+            }
+            model.addAttribute("transactions", transactions);
+            model.addAttribute("cursorPage", transactions);
+        } else {
+            Page<TransactionView> transactions;
+            try {
+                // PageRequest refuses a negative page or a size below one
+                Pageable pageable = PageRequest.of(page, size);
+                transactions = transactionService.findTransactions(description, amount, amountFilter, startDate, endDate, pageable);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+            }
+            model.addAttribute("transactions", transactions);
+        }
         model.addAttribute("description", description);
         model.addAttribute("amount", amount);
         model.addAttribute("amountFilter", amountFilter);
@@ -80,16 +146,165 @@ public class TransactionsController {
         if (result.hasErrors()) {
             return "add-transaction";
         }
-        transactionRepository.save(transaction);
+        transactionService.save(transaction);
         redirectAttributes.addFlashAttribute("successMessage", "Transaction added successfully!");
         return "redirect:/transactions"; // Redirect to  transaction list
     }
 
+    // Bulk import from an uploaded file; the format comes from the "format" parameter or the file extension
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    public ResponseEntity<ImportReport> importTransactions(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(required = false) String format) throws IOException {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        TransactionImportService.Format resolved = "json".equalsIgnoreCase(format) || name.endsWith(".json") || name.endsWith(".ndjson")
+                ? TransactionImportService.Format.JSON : TransactionImportService.Format.CSV;
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importTransactions(input, resolved));
+        }
+    }
+
+    // Bulk import straight from the request body, without a temporary upload file
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseBody
+    public ResponseEntity<ImportReport> importTransactionsFromBody(HttpServletRequest request) throws IOException {
+        TransactionImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? TransactionImportService.Format.CSV : TransactionImportService.Format.JSON;
+        try (InputStream input = request.getInputStream()) {
+            return ResponseEntity.ok(importService.importTransactions(input, format));
+        }
+    }
+
+    // Write-behind ingestion of a JSON object or array of objects, each with a client "key" that
+    // makes retries safe. Answers 202 with one acknowledgement per entry once they are queued,
+    // or 503 with Retry-After when the queue is full.
+    @PostMapping(value = "/ingest", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<List<IngestAck>> ingestTransactions(@RequestBody JsonNode body) throws InterruptedException {
+        List<JsonNode> nodes = new ArrayList<>();
+        if (body.isArray()) {
+            body.forEach(nodes::add);
+        } else {
+            nodes.add(body);
+        }
+        if (nodes.size() > maxIngestItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxIngestItems + " entries are accepted per request");
+        }
+        List<Map<String, String>> records = new ArrayList<>(nodes.size());
+        for (JsonNode node : nodes) {
+            if (!node.isObject()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every entry must be a JSON object");
+            }
+            records.add(TransactionImportService.toRecord(node));
+        }
+
+        Optional<List<IngestAck>> acks = ingestionService.enqueue(records);
+        if (acks.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return ResponseEntity.accepted().body(acks.get());
+    }
+
+    // Current status of one ingested entry; acknowledgements are kept for the most recent entries only
+    @GetMapping("/ingest/{ackId}")
+    @ResponseBody
+    public ResponseEntity<IngestAck> getIngestStatus(@PathVariable String ackId) {
+        return ResponseEntity.of(ingestionService.status(ackId));
+    }
+
+    // Export of every transaction matching the list filters, as CSV (default) or NDJSON.
+    // Rows are written while they are read, so the response starts immediately and memory stays flat.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(required = false) String description,
+                                                                    @RequestParam(required = false) BigDecimal amount,
+                                                                    @RequestParam(required = false) String amountFilter,
+                                                                    @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                                    @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        TransactionExportService.Format resolved;
+        try {
+            resolved = TransactionExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+        Specification<Transaction> filter;
+        Specification<Transaction> archiveFilter;
+        try {
+            filter = transactionService.filter(description, amount, amountFilter, startDate, endDate);
+            archiveFilter = transactionService.archiveFilter(description, amount, amountFilter, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String extension = resolved == TransactionExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = resolved == TransactionExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = output -> exportService.export(filter, archiveFilter, resolved, output);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + extension + "\"")
+                .body(body);
+    }
+
+    // Set-based bulk delete of the rows matching the list filters and/or an id list; at least one
+    // of them is required. Archived years are read-only and left out. Answers with the counts.
+    @PostMapping("/bulk/delete")
+    @ResponseBody
+    public ResponseEntity<BulkReport> bulkDelete(@RequestParam(required = false) List<Long> ids,
+                                                 @RequestParam(required = false) String description,
+                                                 @RequestParam(required = false) BigDecimal amount,
+                                                 @RequestParam(required = false) String amountFilter,
+                                                 @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                 @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        return ResponseEntity.ok(bulkService.delete(bulkFilter(ids, description, amount, amountFilter, startDate, endDate)));
+    }
+
+    // The same selection moved to another category
+    @PostMapping("/bulk/recategorize")
+    @ResponseBody
+    public ResponseEntity<BulkReport> bulkRecategorize(@RequestParam Long categoryId,
+                                                       @RequestParam(required = false) List<Long> ids,
+                                                       @RequestParam(required = false) String description,
+                                                       @RequestParam(required = false) BigDecimal amount,
+                                                       @RequestParam(required = false) String amountFilter,
+                                                       @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                                       @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        Specification<Transaction> filter = bulkFilter(ids, description, amount, amountFilter, startDate, endDate);
+        try {
+            return ResponseEntity.ok(bulkService.recategorize(filter, categoryId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // A request without any criterion would change every row, which is refused
+    private Specification<Transaction> bulkFilter(List<Long> ids, String description, BigDecimal amount, String amountFilter,
+                                                  LocalDate startDate, LocalDate endDate) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (!hasIds && (description == null || description.isEmpty()) && amount == null && startDate == null && endDate == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Give ids or at least one filter");
+        }
+        if (hasIds && ids.size() > maxBulkIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBulkIds + " ids are accepted per request");
+        }
+        Specification<Transaction> filter;
+        try {
+            filter = transactionService.filter(description, amount, amountFilter, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return hasIds ? filter.and(TransactionSpecifications.idIn(ids)) : filter;
+    }
+
     @GetMapping("/view/{id}")
     @ResponseBody
-    public ResponseEntity<Transaction> viewTransaction(@PathVariable Long id) {
-        // Fetch the transaction by ID from the repository or service layer
-        Transaction transaction = transactionService.getTransactionById(id);
+    public ResponseEntity<TransactionView> viewTransaction(@PathVariable Long id) {
+        // Fetch the transaction with its category name in one query
+        TransactionView transaction = transactionService.getTransactionView(id);
 
         // Check if transaction exists and return JSON response
         if (transaction != null) {
@@ -99,6 +314,18 @@ public class TransactionsController {
         }
     }
 
+    // Size of the description search index; verify=true also compares it with the database
+    @GetMapping("/search-index")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getSearchIndexStatus(@RequestParam(defaultValue = "false") boolean verify) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("stats", descriptionIndex.stats());
+        if (verify) {
+            status.put("verification", descriptionIndex.verify());
+        }
+        return ResponseEntity.ok(status);
+    }
+
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable Long id, Model model, HttpServletRequest request) {
         Transaction transaction = transactionService.getTransactionById(id);
@@ -124,9 +351,12 @@ public class TransactionsController {
             return "edit-transaction"; // Return to the form if there are validation errors
         }
 
-        // Set the transaction ID to ensure we are updating the correct record
-        transaction.setId(id);
-        transactionRepository.save(transaction); // Save the updated transaction
+        // Save the updated transaction under the ID from the path
+        try {
+            transactionService.update(id, transaction);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
 
         redirectAttributes.addFlashAttribute("successMessage", "Transaction updated successfully!");
         return "redirect:/transactions"; // Redirect back to transaction list
@@ -136,7 +366,11 @@ public class TransactionsController {
     public String deleteTransaction(@PathVariable Long id,
                                     RedirectAttributes redirectAttributes) {
 
-        transactionRepository.deleteById(id);
+        try {
+            transactionService.deleteById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
         redirectAttributes.addFlashAttribute("successMessage",
                 "Transaction deleted successfully!");
 
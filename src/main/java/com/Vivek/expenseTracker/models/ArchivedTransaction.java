@@ -0,0 +1,55 @@
+package com.Vivek.expenseTracker.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// A row of a closed year moved to the cold tier (see LedgerTierService). Read-only: rows get here
+// and back with SQL, and keep their ids. Attribute names match Transaction, so the list filters
+// (TransactionSpecifications) apply to both tiers.
+@Entity
+@Immutable
+@Table(name = "transactions_archive")
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    private Double amount;
+
+    private LocalDate date;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Transaction.TransactionType transactionType;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", referencedColumnName = "id", nullable = false)
+    private Category category;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Transaction.TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,14 @@
+package com.Vivek.expenseTracker.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A write that took a category's spending for a month over its budget
+public record BudgetAlert(Long categoryId,
+                          String categoryName,
+                          int year,
+                          int month,
+                          BigDecimal monthlyBudget,
+                          BigDecimal spent,
+                          LocalDateTime raisedAt) {
+}
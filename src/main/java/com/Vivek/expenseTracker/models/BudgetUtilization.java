@@ -0,0 +1,17 @@
+package com.Vivek.expenseTracker.models;
+
+import java.math.BigDecimal;
+
+// Spending of one category in one month against its budget. Budget, remaining and percentUsed
+// are null for a category without a budget.
+public record BudgetUtilization(Long categoryId,
+                                String categoryName,
+                                int year,
+                                int month,
+                                BigDecimal monthlyBudget,
+                                BigDecimal spent,
+                                long transactionCount,
+                                BigDecimal remaining,
+                                Double percentUsed,
+                                boolean overBudget) {
+}
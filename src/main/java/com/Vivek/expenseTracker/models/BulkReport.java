@@ -0,0 +1,9 @@
+package com.Vivek.expenseTracker.models;
+
+// Outcome of a bulk delete, recategorization or category merge: rows changed in the hot table
+// and in the archive, how many chunk transactions it took, and how long
+public record BulkReport(long rowsAffected,
+                         long archivedRowsAffected,
+                         int chunks,
+                         long elapsedMillis) {
+}
@@ -5,14 +5,17 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "categories")
 public class Category {
 
+    // Sequence ids are allocated 50 at a time, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Category name is mandatory")
@@ -26,6 +29,11 @@ public class Category {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Optional spending limit per calendar month; see BudgetService
+    @DecimalMin(value = "0.00", message = "Monthly budget cannot be negative")
+    @Column(name = "monthly_budget", precision = 19, scale = 2)
+    private BigDecimal monthlyBudget;
+
     public Category() {
     }
 
@@ -64,4 +72,12 @@ public class Category {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public BigDecimal getMonthlyBudget() {
+        return monthlyBudget;
+    }
+
+    public void setMonthlyBudget(BigDecimal monthlyBudget) {
+        this.monthlyBudget = monthlyBudget;
+    }
 }
@@ -0,0 +1,35 @@
+package com.Vivek.expenseTracker.models;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Spend and income per category and period. The per-period arrays of every row line up with "periods".
+// "categories" is one page of the ranked categories (most spent first); "other" collapses the
+// categories beyond the top N, and "total" covers every category.
+public record CategoryReport(Granularity granularity,
+                             LocalDate startDate,
+                             LocalDate endDate,
+                             List<String> periods,
+                             List<Row> categories,
+                             Row other,
+                             Row total,
+                             int page,
+                             int size,
+                             int totalCategories) {
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH,
+        YEAR
+    }
+
+    public record Row(Long categoryId,
+                      String categoryName,
+                      double expenses,
+                      double incomes,
+                      long transactions,
+                      double[] expensesByPeriod,
+                      double[] incomesByPeriod) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.Vivek.expenseTracker.models;
+
+import java.util.List;
+
+// One page of a keyset-paginated list. The cursors are opaque tokens for the neighbouring pages,
+// null when there is nothing in that direction. The total is only present when it was asked for.
+public record CursorPage<T>(List<T> content,
+                            int size,
+                            String nextCursor,
+                            String previousCursor,
+                            Long totalElements) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
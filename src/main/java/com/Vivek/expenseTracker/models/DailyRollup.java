@@ -0,0 +1,36 @@
+package com.Vivek.expenseTracker.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// Pre-aggregated totals of the transactions table, maintained on every write by RollupService
+@Entity
+@Table(name = "daily_rollups")
+public class DailyRollup {
+
+    @EmbeddedId
+    private DailyRollupId id;
+
+    // Kept as an exact decimal so repeated +/- deltas never drift
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    public DailyRollup() {
+    }
+
+    public DailyRollupId getId() {
+        return id;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+}
@@ -0,0 +1,60 @@
+package com.Vivek.expenseTracker.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Composite key of a rollup row: one row per day, transaction type and category
+@Embeddable
+public class DailyRollupId implements Serializable {
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private Transaction.TransactionType transactionType;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    public DailyRollupId() {
+    }
+
+    public DailyRollupId(LocalDate date, Transaction.TransactionType transactionType, Long categoryId) {
+        this.date = date;
+        this.transactionType = transactionType;
+        this.categoryId = categoryId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Transaction.TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyRollupId that)) return false;
+        return Objects.equals(date, that.date)
+                && transactionType == that.transactionType
+                && Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, transactionType, categoryId);
+    }
+}
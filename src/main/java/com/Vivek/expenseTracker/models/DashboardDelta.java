@@ -0,0 +1,13 @@
+package com.Vivek.expenseTracker.models;
+
+import java.util.Map;
+
+// Change of the dashboard figures since the previous update, in the shapes of DashboardSummary.
+// Only the figures that moved are present; add each value to the one already shown.
+public record DashboardDelta(Map<String, Double> expenses,
+                             Map<String, Double> incomes,
+                             Map<String, Double> transactions,
+                             Map<String, Double> expensesByMonth,
+                             Map<String, Double> incomesByMonth,
+                             Map<String, Integer> transactionsByMonth) {
+}
@@ -0,0 +1,12 @@
+package com.Vivek.expenseTracker.models;
+
+import java.util.Map;
+
+// Everything the dashboard shows, in the same shapes as the individual /total-* endpoints
+public record DashboardSummary(Map<String, Double> expenses,
+                               Map<String, Double> incomes,
+                               Map<String, Double> transactions,
+                               Map<String, Double> expensesByMonth,
+                               Map<String, Double> incomesByMonth,
+                               Map<String, Integer> transactionsByMonth) {
+}
@@ -0,0 +1,16 @@
+package com.Vivek.expenseTracker.models;
+
+import java.util.List;
+
+// Outcome of a bulk import: counts, the first rejected rows with their reasons, and throughput
+public record ImportReport(long rowsRead,
+                           long rowsImported,
+                           long rowsRejected,
+                           List<RowError> errors,
+                           long elapsedMillis,
+                           double rowsPerSecond) {
+
+    // "line" is the 1-based line in a CSV file, or the 1-based record number in JSON
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.Vivek.expenseTracker.models;
+
+// Acknowledgement of one ingested entry. QUEUED entries move on to COMMITTED (or FAILED) once the
+// writer has flushed them; DUPLICATE carries the transaction the key wrote the first time, or
+// the acknowledgement still in the queue for it.
+public record IngestAck(String ackId, String key, Status status, Long transactionId, String error) {
+
+    public enum Status {
+        QUEUED,
+        COMMITTED,
+        DUPLICATE,
+        REJECTED,
+        FAILED
+    }
+}
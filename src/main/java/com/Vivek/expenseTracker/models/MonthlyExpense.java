@@ -0,0 +1,36 @@
+package com.Vivek.expenseTracker.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// Month-to-date expenses of one category, maintained on every write by RollupService and compared
+// with the category's monthly budget
+@Entity
+@Table(name = "monthly_category_expenses")
+public class MonthlyExpense {
+
+    @EmbeddedId
+    private MonthlyExpenseId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    public MonthlyExpense() {
+    }
+
+    public MonthlyExpenseId getId() {
+        return id;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+}
@@ -0,0 +1,61 @@
+package com.Vivek.expenseTracker.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Composite key of a month-to-date total: one row per category and calendar month
+@Embeddable
+public class MonthlyExpenseId implements Serializable {
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "ledger_year", nullable = false)
+    private int year;
+
+    @Column(name = "ledger_month", nullable = false)
+    private int month;
+
+    public MonthlyExpenseId() {
+    }
+
+    public MonthlyExpenseId(Long categoryId, int year, int month) {
+        this.categoryId = categoryId;
+        this.year = year;
+        this.month = month;
+    }
+
+    public static MonthlyExpenseId of(Long categoryId, LocalDate date) {
+        return new MonthlyExpenseId(categoryId, date.getYear(), date.getMonthValue());
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlyExpenseId that)) return false;
+        return year == that.year
+                && month == that.month
+                && Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(categoryId, year, month);
+    }
+}
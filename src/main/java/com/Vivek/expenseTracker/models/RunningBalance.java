@@ -0,0 +1,8 @@
+package com.Vivek.expenseTracker.models;
+
+import java.time.LocalDate;
+
+// Balance (every income minus every expense up to and including the day) for each day of a range:
+// balances[0] is the balance at the end of startDate, balances[i] i days later.
+public record RunningBalance(LocalDate startDate, LocalDate endDate, double[] balances) {
+}
@@ -10,8 +10,10 @@ import java.time.LocalDate;
 @Table(name = "transactions")
 public class Transaction {
 
+    // Sequence ids are allocated 50 at a time, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Amount is required")
@@ -36,7 +38,8 @@ public class Transaction {
         EXPENSE
     }
 
-    @ManyToOne
+    // Lazy: the list and view pages read TransactionView rows joined with the category instead
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", referencedColumnName = "id", nullable = false)
     private Category category; // Foreign Key to Category
 
@@ -0,0 +1,18 @@
+package com.Vivek.expenseTracker.models;
+
+import java.time.LocalDate;
+
+// Immutable copy of the fields of a transaction that derived data (rollups, caches) depends on
+public record TransactionSnapshot(Long id,
+                                  LocalDate date,
+                                  Transaction.TransactionType transactionType,
+                                  Long categoryId,
+                                  Double amount,
+                                  String description) {
+
+    public static TransactionSnapshot of(Transaction transaction) {
+        Long categoryId = transaction.getCategory() != null ? transaction.getCategory().getId() : null;
+        return new TransactionSnapshot(transaction.getId(), transaction.getDate(), transaction.getTransactionType(),
+                categoryId, transaction.getAmount(), transaction.getDescription());
+    }
+}
@@ -0,0 +1,14 @@
+package com.Vivek.expenseTracker.models;
+
+import java.time.LocalDate;
+
+// Read-only row of the transactions list, fetched with its category name in one select.
+// Not an entity, so reading millions of them never fills the persistence context.
+public record TransactionView(Long id,
+                              Double amount,
+                              LocalDate date,
+                              String description,
+                              Transaction.TransactionType transactionType,
+                              Long categoryId,
+                              String categoryName) {
+}
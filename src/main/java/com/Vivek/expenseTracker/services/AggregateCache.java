@@ -0,0 +1,163 @@
+package com.Vivek.expenseTracker.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Bounded LRU cache for the TransactionService aggregates.
+// Entries are keyed by what they compute and the date window they cover, so a write only
+// evicts the windows containing its dates. Windows are derived from today's date, which means
+// a new day produces new keys; the whole cache is also dropped on rollover to free the old ones.
+// Writes of other instances drop everything (see RemoteLedgerChangedEvent), and entries expire
+// after ttl in any case, which bounds how long a missed invalidation can serve old figures.
+// Misses are loaded from the primary: a total read from a lagging replica would be kept until the
+// next write or the ttl, long after the replica caught up.
+@Component
+public class AggregateCache {
+
+    public enum Kind {
+        EXPENSE_TOTAL,
+        INCOME_TOTAL,
+        TRANSACTION_COUNT,
+        EXPENSES_BY_MONTH,
+        INCOMES_BY_MONTH,
+        TRANSACTIONS_BY_MONTH,
+        DASHBOARD_SUMMARY
+    }
+
+    public record Key(Kind kind, LocalDate start, LocalDate end) {
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(start) && !date.isAfter(end);
+        }
+    }
+
+    public record Stats(int size, int maxEntries, long hits, long misses, long evictions, long invalidations) {
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private LocalDate currentDay;
+    // Bumped by every invalidation, so a value computed across a concurrent write is never stored
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    @Autowired
+    public AggregateCache(@Value("${expense-tracker.aggregate-cache.max-entries:256}") int maxEntries,
+                          @Value("${expense-tracker.aggregate-cache.ttl:5m}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemDefaultZone());
+    }
+
+    AggregateCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.currentDay = LocalDate.now(clock);
+        // Access order turns the map into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > AggregateCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns the cached value for the key, computing it outside the lock, on the primary, on a miss
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        long startGeneration;
+        synchronized (this) {
+            rollOverIfNeeded();
+            Entry cached = entries.get(key);
+            if (cached != null && cached.expiresAt() - clock.millis() > 0) {
+                hits++;
+                return (T) cached.value();
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        T value;
+        boolean pinned = ReadYourWrites.isPinned();
+        ReadYourWrites.pin(true);
+        try {
+            value = loader.get();
+        } finally {
+            ReadYourWrites.pin(pinned);
+        }
+
+        synchronized (this) {
+            if (generation == startGeneration) {
+                entries.put(key, new Entry(value, clock.millis() + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    // Drops every cached window that contains one of the given dates
+    public synchronized void evictCovering(Collection<LocalDate> dates) {
+        generation++;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            if (dates.stream().anyMatch(key::covers)) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), maxEntries, hits, misses, evictions, invalidations);
+    }
+
+    // Evict after commit: evicting earlier would let a reader re-cache the pre-commit totals
+    @TransactionalEventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        evictCovering(event.affectedDates());
+    }
+
+    // Another instance's writes carry no dates here
+    @EventListener
+    public void onRemoteLedgerChanged(RemoteLedgerChangedEvent event) {
+        clear();
+    }
+
+    private void rollOverIfNeeded() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            clear();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.Vivek.expenseTracker.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs independent aggregate queries concurrently, one virtual thread each.
+// A semaphore shared by all requests bounds how many run at once, so fan-out can never take more
+// than part of the connection pool. Failing, timing out or cancelling the combined future cancels
+// (interrupts) every task still queued or running.
+// Tasks run with the caller's SQL recording and read-your-writes pin (see ReadYourWrites).
+@Component
+public class AggregateFanOut implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration timeout;
+    private final SqlStatementRecorder recorder;
+
+    @Autowired
+    public AggregateFanOut(SqlStatementRecorder recorder,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                           @Value("${expense-tracker.aggregates.max-concurrency:0}") int maxConcurrency,
+                           @Value("${expense-tracker.aggregates.timeout:5s}") Duration timeout) {
+        // Unset means half the pool, leaving the rest for ordinary request queries
+        this(recorder, maxConcurrency > 0 ? maxConcurrency : Math.max(1, poolSize / 2), timeout);
+    }
+
+    AggregateFanOut(SqlStatementRecorder recorder, int maxConcurrency, Duration timeout) {
+        this.recorder = recorder;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeout = timeout;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    // Starts every task and completes with their results, keyed and ordered like the input
+    public <V> CompletableFuture<Map<String, V>> submitAll(Map<String, Callable<V>> tasks) {
+        CompletableFuture<Map<String, V>> result = new CompletableFuture<>();
+        Map<String, V> values = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        List<Future<?>> running = new ArrayList<>(tasks.size());
+        SqlStatementRecorder.Recording recording = recorder.current();
+        boolean pinned = ReadYourWrites.isPinned();
+
+        for (Map.Entry<String, Callable<V>> task : tasks.entrySet()) {
+            running.add(executor.submit(() -> {
+                recorder.attach(recording);
+                ReadYourWrites.pin(pinned);
+                try {
+                    permits.acquire();
+                    try {
+                        if (!result.isDone()) {
+                            values.put(task.getKey(), task.getValue().call());
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        Map<String, V> ordered = new LinkedHashMap<>();
+                        tasks.keySet().forEach(key -> ordered.put(key, values.get(key)));
+                        result.complete(ordered);
+                    }
+                } catch (InterruptedException e) {
+                    result.completeExceptionally(new CancellationException("Aggregate query cancelled"));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    recorder.attach(null);
+                    ReadYourWrites.pin(false);
+                }
+            }));
+        }
+        if (tasks.isEmpty()) {
+            result.complete(new LinkedHashMap<>());
+        }
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, failure) -> {
+            if (failure != null) {
+                running.forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    // Blocking form of submitAll for callers that need the values on the current thread.
+    // Interrupting the caller cancels the tasks.
+    public <V> Map<String, V> invokeAll(Map<String, Callable<V>> tasks) {
+        CompletableFuture<Map<String, V>> result = submitAll(tasks);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for aggregate queries");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Aggregate queries did not finish within " + timeout, e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.ArchivedTransaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+// The cold tier; filtered lists go through TransactionRepositoryCustom like the hot table
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.Vivek.expenseTracker.models.TransactionView(t.id, t.amount, t.date, t.description, " +
+            "t.transactionType, c.id, c.name) FROM ArchivedTransaction t JOIN t.category c WHERE t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    // Same grouping as DailyRollupRepository.aggregateTransactionsByDay, for the archived rows
+    @Query("SELECT t.date, t.transactionType, t.category.id, SUM(t.amount), COUNT(t) FROM ArchivedTransaction t " +
+            "GROUP BY t.date, t.transactionType, t.category.id")
+    List<Object[]> aggregateByDay();
+}
@@ -0,0 +1,114 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.BudgetAlert;
+import com.Vivek.expenseTracker.models.BudgetUtilization;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.MonthlyExpense;
+import com.Vivek.expenseTracker.models.MonthlyExpenseId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Monthly budgets per category. RollupService keeps a running expense total per category and
+// month (monthly_category_expenses) in the writer's transaction and hands the totals that went up
+// to checkThresholds, which compares each with the budget from the category cache: one key lookup
+// per changed month, no SUM over transactions. A write that crosses a budget raises a BudgetAlert
+// once it commits; the latest alerts are kept for /categories/budgets/alerts.
+@Service
+public class BudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+
+    private final MonthlyExpenseRepository monthlyRepository;
+    private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxAlerts;
+
+    // Guarded by itself
+    private final ArrayDeque<BudgetAlert> alerts = new ArrayDeque<>();
+
+    public BudgetService(MonthlyExpenseRepository monthlyRepository,
+                         CategoryCache categoryCache,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${expense-tracker.budgets.max-alerts:100}") int maxAlerts) {
+        this.monthlyRepository = monthlyRepository;
+        this.categoryCache = categoryCache;
+        this.eventPublisher = eventPublisher;
+        this.maxAlerts = maxAlerts;
+    }
+
+    // Called with the month totals that increased and by how much; must run in the writer's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void checkThresholds(Map<MonthlyExpenseId, BigDecimal> increases) {
+        increases.forEach((key, increase) -> {
+            Category category = categoryCache.findById(key.getCategoryId()).orElse(null);
+            if (category == null || category.getMonthlyBudget() == null) {
+                return;
+            }
+            BigDecimal budget = category.getMonthlyBudget();
+            BigDecimal spent = monthlyRepository.findTotal(key);
+            // Only the write that crosses the line raises an alert, not every write after it
+            if (spent != null && spent.compareTo(budget) > 0 && spent.subtract(increase).compareTo(budget) <= 0) {
+                eventPublisher.publishEvent(new BudgetAlert(category.getId(), category.getName(), key.getYear(),
+                        key.getMonth(), budget, spent, LocalDateTime.now()));
+            }
+        });
+    }
+
+    // Raised after commit, so a rolled back write never alerts
+    @TransactionalEventListener
+    public void onBudgetAlert(BudgetAlert alert) {
+        log.warn("Category '{}' is over its monthly budget for {}-{}: {} spent of {}", alert.categoryName(),
+                alert.year(), alert.month(), alert.spent(), alert.monthlyBudget());
+        synchronized (alerts) {
+            alerts.addFirst(alert);
+            if (alerts.size() > maxAlerts) {
+                alerts.removeLast();
+            }
+        }
+    }
+
+    // Newest first
+    public List<BudgetAlert> recentAlerts() {
+        synchronized (alerts) {
+            return new ArrayList<>(alerts);
+        }
+    }
+
+    // Every category with its spending in the month, read from the month totals and the category cache
+    @Transactional(readOnly = true)
+    public List<BudgetUtilization> utilization(YearMonth month) {
+        Map<Long, MonthlyExpense> totals = new HashMap<>();
+        for (MonthlyExpense total : monthlyRepository.findByMonth(month.getYear(), month.getMonthValue())) {
+            totals.put(total.getId().getCategoryId(), total);
+        }
+        List<BudgetUtilization> result = new ArrayList<>();
+        for (Category category : categoryCache.all()) {
+            MonthlyExpense total = totals.get(category.getId());
+            BigDecimal spent = total != null ? total.getTotalAmount() : BigDecimal.ZERO;
+            long count = total != null ? total.getTransactionCount() : 0;
+            BigDecimal budget = category.getMonthlyBudget();
+            BigDecimal remaining = budget != null ? budget.subtract(spent) : null;
+            Double percentUsed = budget == null || budget.signum() == 0 ? null
+                    : spent.multiply(BigDecimal.valueOf(100)).divide(budget, 1, RoundingMode.HALF_UP).doubleValue();
+            result.add(new BudgetUtilization(category.getId(), category.getName(), month.getYear(), month.getMonthValue(),
+                    budget, spent, count, remaining, percentUsed, budget != null && spent.compareTo(budget) > 0));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Immutable snapshot of the categories table, loaded on first use and replaced as a whole after
+// every category write. Readers never lock and never see a half-updated snapshot. Writes of another
+// instance drop it (see LedgerVersion), so it is loaded again on next use.
+// The Category objects are detached copies shared between requests: read them, do not modify them.
+@Component
+public class CategoryCache {
+
+    public record Snapshot(List<Category> all, Map<Long, Category> byId, Map<String, Category> byName) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final int maxSearchSize;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         @Value("${expense-tracker.category-cache.max-search-size:1000}") int maxSearchSize) {
+        this.categoryRepository = categoryRepository;
+        this.maxSearchSize = maxSearchSize;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : refresh();
+    }
+
+    // All categories ordered by id
+    public List<Category> all() {
+        return snapshot().all();
+    }
+
+    // Read-through: an id missing from the snapshot (written by another instance, say) triggers a reload
+    public Optional<Category> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Category category = snapshot().byId().get(id);
+        if (category == null && categoryRepository.existsById(id)) {
+            category = refresh().byId().get(id);
+        }
+        return Optional.ofNullable(category);
+    }
+
+    public Optional<Category> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(snapshot().byName().get(key(name)));
+    }
+
+    // Case-insensitive "name contains" page served from memory, as long as the table is small enough
+    // for a linear scan to beat the query; empty means the caller should ask the database.
+    public Optional<Page<Category>> search(String name, Pageable pageable) {
+        Snapshot current = snapshot();
+        if (current.all().size() > maxSearchSize) {
+            return Optional.empty();
+        }
+        List<Category> matches = current.all();
+        if (name != null && !name.isEmpty()) {
+            String needle = key(name);
+            matches = matches.stream().filter(category -> key(category.getName()).contains(needle)).toList();
+        }
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(matches, pageable, matches.size()));
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return Optional.of(new PageImpl<>(matches.subList(from, to), pageable, matches.size()));
+    }
+
+    // Another instance may have renamed, re-budgeted or deleted any category. Serialized with refresh
+    // so a load that started before the change cannot put its snapshot back afterwards.
+    @EventListener
+    public synchronized void onRemoteLedgerChanged(RemoteLedgerChangedEvent event) {
+        snapshot.set(null);
+    }
+
+    // Reloads the table and swaps the snapshot in one step. Serialized so a slow, older load can
+    // never overwrite a newer one.
+    public synchronized Snapshot refresh() {
+        List<Category> all = new ArrayList<>();
+        for (Category category : categoryRepository.findAll()) {
+            all.add(copyOf(category));
+        }
+        all.sort(Comparator.comparing(Category::getId));
+
+        Map<Long, Category> byId = new HashMap<>();
+        Map<String, Category> byName = new HashMap<>();
+        for (Category category : all) {
+            byId.put(category.getId(), category);
+            byName.put(key(category.getName()), category);
+        }
+        Snapshot loaded = new Snapshot(List.copyOf(all), Map.copyOf(byId), Map.copyOf(byName));
+        snapshot.set(loaded);
+        return loaded;
+    }
+
+    private static Category copyOf(Category category) {
+        Category copy = new Category(category.getName());
+        copy.setId(category.getId());
+        copy.setCreatedAt(category.getCreatedAt());
+        copy.setUpdatedAt(category.getUpdatedAt());
+        copy.setMonthlyBudget(category.getMonthlyBudget());
+        return copy;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
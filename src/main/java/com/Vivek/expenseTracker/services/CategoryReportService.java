@@ -0,0 +1,277 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.CategoryReport;
+import com.Vivek.expenseTracker.models.RunningBalance;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Category x period breakdown of the ledger, and the running balance. One grouped query over the
+// daily rollups, bucketed by the database for months and years; days and weeks read the day rows
+// (a week folds at most seven). Months and the balance come from the columnar ledger instead when
+// it is loaded and the range has no archived year. Sums are added up in cents, like the rollups hold them.
+@Service
+public class CategoryReportService {
+
+    private final DailyRollupRepository rollupRepository;
+    private final CategoryCache categoryCache;
+    private final ColumnarLedger columnarLedger;
+    private final LedgerTiers ledgerTiers;
+    private final int maxPeriods;
+
+    public CategoryReportService(DailyRollupRepository rollupRepository,
+                                 CategoryCache categoryCache,
+                                 ColumnarLedger columnarLedger,
+                                 LedgerTiers ledgerTiers,
+                                 @Value("${expense-tracker.reports.max-periods:1000}") int maxPeriods) {
+        this.rollupRepository = rollupRepository;
+        this.categoryCache = categoryCache;
+        this.columnarLedger = columnarLedger;
+        this.ledgerTiers = ledgerTiers;
+        this.maxPeriods = maxPeriods;
+    }
+
+    // top (optional) keeps the N categories with the most spending and collapses the rest into
+    // "other"; page and size then page over the categories that are kept
+    @Transactional(readOnly = true)
+    public CategoryReport report(LocalDate startDate, LocalDate endDate, CategoryReport.Granularity granularity,
+                                 Integer top, int page, int size) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("The report needs a start date on or before the end date");
+        }
+        if (top != null && top < 1) {
+            throw new IllegalArgumentException("top must be at least 1");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+
+        LocalDate first = bucketStart(startDate, granularity);
+        long periodCount = index(first, bucketStart(endDate, granularity), granularity) + 1;
+        if (periodCount > maxPeriods) {
+            throw new IllegalArgumentException("The report would have " + periodCount + " periods, at most "
+                    + maxPeriods + " are allowed; use a coarser granularity or a shorter range");
+        }
+        int periods = (int) periodCount;
+
+        Map<Long, Totals> byCategory = new HashMap<>();
+        switch (granularity) {
+            case DAY, WEEK -> {
+                for (Object[] row : rollupRepository.findByCategoryAndDay(startDate, endDate)) {
+                    int period = (int) index(first, bucketStart((LocalDate) row[1], granularity), granularity);
+                    add(byCategory, periods, row[0], period, row[2], row[3], row[4]);
+                }
+            }
+            case MONTH -> {
+                if (ledgerCovers(startDate, endDate)) {
+                    for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+                        columnarLedger.totalsByCategoryAndMonth(type, startDate, endDate).forEach((categoryId, months) -> {
+                            Totals totals = byCategory.computeIfAbsent(categoryId, id -> new Totals(periods));
+                            for (int period = 0; period < periods; period++) {
+                                totals.add(period, type, months.cents()[period], months.counts()[period]);
+                            }
+                        });
+                    }
+                } else {
+                    for (Object[] row : rollupRepository.sumByCategoryAndMonth(startDate, endDate)) {
+                        LocalDate month = YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()).atDay(1);
+                        add(byCategory, periods, row[0], (int) index(first, month, granularity), row[3], row[4], row[5]);
+                    }
+                }
+            }
+            case YEAR -> {
+                for (Object[] row : rollupRepository.sumByCategoryAndYear(startDate, endDate)) {
+                    LocalDate year = LocalDate.of(((Number) row[1]).intValue(), 1, 1);
+                    add(byCategory, periods, row[0], (int) index(first, year, granularity), row[2], row[3], row[4]);
+                }
+            }
+        }
+        // Rollup rows can linger at zero after their transactions are deleted
+        byCategory.values().removeIf(totals -> totals.transactions == 0);
+
+        Map<Long, Category> categories = categoryCache.snapshot().byId();
+        List<Map.Entry<Long, Totals>> ranked = new ArrayList<>(byCategory.entrySet());
+        ranked.sort(Comparator.<Map.Entry<Long, Totals>>comparingLong(entry -> entry.getValue().total(Transaction.TransactionType.EXPENSE))
+                .thenComparingLong(entry -> entry.getValue().total(Transaction.TransactionType.INCOME))
+                .reversed()
+                .thenComparing(entry -> nameOf(categories, entry.getKey())));
+
+        Totals total = new Totals(periods);
+        ranked.forEach(entry -> total.addAll(entry.getValue()));
+        Totals other = null;
+        List<Map.Entry<Long, Totals>> kept = ranked;
+        if (top != null && ranked.size() > top) {
+            kept = ranked.subList(0, top);
+            other = new Totals(periods);
+            for (Map.Entry<Long, Totals> entry : ranked.subList(top, ranked.size())) {
+                other.addAll(entry.getValue());
+            }
+        }
+
+        List<CategoryReport.Row> rows = new ArrayList<>();
+        int from = (int) Math.min((long) page * size, kept.size());
+        int to = (int) Math.min((long) from + size, kept.size());
+        for (int i = from; i < to; i++) {
+            Map.Entry<Long, Totals> entry = kept.get(i);
+            rows.add(entry.getValue().toRow(entry.getKey(), nameOf(categories, entry.getKey())));
+        }
+
+        List<String> labels = new ArrayList<>(periods);
+        for (int i = 0; i < periods; i++) {
+            labels.add(label(first, i, granularity));
+        }
+        return new CategoryReport(granularity, startDate, endDate, labels, rows,
+                other != null ? other.toRow(null, "Other") : null, total.toRow(null, "Total"),
+                page, size, kept.size());
+    }
+
+    // Balance at the end of every day of the range, opening with everything before it
+    @Transactional(readOnly = true)
+    public RunningBalance runningBalance(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("The balance needs a start date on or before the end date");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > maxPeriods) {
+            throw new IllegalArgumentException("The balance would have " + days + " days, at most " + maxPeriods + " are allowed");
+        }
+        // The balance opens with every earlier day, so the whole history must be in the ledger
+        if (ledgerCovers(null, endDate)) {
+            return new RunningBalance(startDate, endDate, columnarLedger.runningBalance(startDate, endDate));
+        }
+
+        long balance = toCents(rollupRepository.sumAmountBefore(Transaction.TransactionType.INCOME, startDate))
+                - toCents(rollupRepository.sumAmountBefore(Transaction.TransactionType.EXPENSE, startDate));
+        long[] net = new long[(int) days];
+        for (Object[] row : rollupRepository.summarizeByDay(startDate, endDate)) {
+            net[(int) ChronoUnit.DAYS.between(startDate, (LocalDate) row[0])] = toCents(row[1]) - toCents(row[2]);
+        }
+        double[] balances = new double[(int) days];
+        for (int day = 0; day < days; day++) {
+            balance += net[day];
+            balances[day] = balance / 100.0;
+        }
+        return new RunningBalance(startDate, endDate, balances);
+    }
+
+    // The columnar ledger is loaded from the hot table; the rollups also cover archived years
+    private boolean ledgerCovers(LocalDate startDate, LocalDate endDate) {
+        return columnarLedger.ready() && !ledgerTiers.archiveOverlaps(startDate, endDate);
+    }
+
+    private static void add(Map<Long, Totals> byCategory, int periods, Object categoryId, int period,
+                            Object type, Object amount, Object count) {
+        byCategory.computeIfAbsent((Long) categoryId, id -> new Totals(periods))
+                .add(period, (Transaction.TransactionType) type, toCents(amount), ((Number) count).longValue());
+    }
+
+    private static long toCents(Object amount) {
+        BigDecimal value = amount instanceof BigDecimal decimal ? decimal : BigDecimal.valueOf(((Number) amount).doubleValue());
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Falls back to the cache's read-through for categories newer than the snapshot
+    private String nameOf(Map<Long, Category> categories, Long id) {
+        Category category = categories.get(id);
+        if (category == null) {
+            category = categoryCache.findById(id).orElse(null);
+        }
+        return category != null ? category.getName() : "Unknown";
+    }
+
+    // First day of the period containing the date; weeks start on Monday
+    private static LocalDate bucketStart(LocalDate date, CategoryReport.Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    // Position of a period, given the first days of the report's first period and of this one
+    private static long index(LocalDate first, LocalDate bucket, CategoryReport.Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(first, bucket);
+            case WEEK -> ChronoUnit.WEEKS.between(first, bucket);
+            case MONTH -> ChronoUnit.MONTHS.between(first, bucket);
+            case YEAR -> ChronoUnit.YEARS.between(first, bucket);
+        };
+    }
+
+    // 2025-03-14 for days, the Monday for weeks, 2025-03 for months, 2025 for years
+    private static String label(LocalDate first, int index, CategoryReport.Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> first.plusDays(index).toString();
+            case WEEK -> first.plusWeeks(index).toString();
+            case MONTH -> YearMonth.from(first).plusMonths(index).toString();
+            case YEAR -> Integer.toString(first.getYear() + index);
+        };
+    }
+
+    // Cents per period and type for one category (or a group of them)
+    private static final class Totals {
+        private final long[] expenses;
+        private final long[] incomes;
+        private long transactions;
+
+        Totals(int periods) {
+            this.expenses = new long[periods];
+            this.incomes = new long[periods];
+        }
+
+        void add(int period, Transaction.TransactionType type, long cents, long count) {
+            if (type == Transaction.TransactionType.EXPENSE) {
+                expenses[period] += cents;
+            } else {
+                incomes[period] += cents;
+            }
+            transactions += count;
+        }
+
+        void addAll(Totals other) {
+            for (int i = 0; i < expenses.length; i++) {
+                expenses[i] += other.expenses[i];
+                incomes[i] += other.incomes[i];
+            }
+            transactions += other.transactions;
+        }
+
+        long total(Transaction.TransactionType type) {
+            long sum = 0;
+            for (long cents : type == Transaction.TransactionType.EXPENSE ? expenses : incomes) {
+                sum += cents;
+            }
+            return sum;
+        }
+
+        CategoryReport.Row toRow(Long categoryId, String name) {
+            return new CategoryReport.Row(categoryId, name,
+                    total(Transaction.TransactionType.EXPENSE) / 100.0, total(Transaction.TransactionType.INCOME) / 100.0,
+                    transactions, toAmounts(expenses), toAmounts(incomes));
+        }
+
+        private static double[] toAmounts(long[] cents) {
+            double[] amounts = new double[cents.length];
+            for (int i = 0; i < cents.length; i++) {
+                amounts[i] = cents[i] / 100.0;
+            }
+            return amounts;
+        }
+    }
+}
@@ -5,32 +5,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final LedgerVersion ledgerVersion;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryCache categoryCache, LedgerVersion ledgerVersion) {
         this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.ledgerVersion = ledgerVersion;
     }
 
-    // Method to retrieve categories with optional name filtering and pagination
+    // Method to retrieve categories with optional name filtering and pagination.
+    // Served from the category cache unless the table has grown too large for it.
+    @Transactional(readOnly = true)
     public Page<Category> getCategories(String name, Pageable pageable) {
-        // If name filter is provided, use it, otherwise fetch all categories
-        if (name != null && !name.isEmpty()) {
-            return categoryRepository.findByNameContainingIgnoreCase(name, pageable);
-        } else {
-            return categoryRepository.findAll(pageable);
-        }
+        return categoryCache.search(name, pageable).orElseGet(() -> {
+            // If name filter is provided, use it, otherwise fetch all categories
+            if (name != null && !name.isEmpty()) {
+                return categoryRepository.findByNameContainingIgnoreCase(name, pageable);
+            } else {
+                return categoryRepository.findAll(pageable);
+            }
+        });
     }
 
-    // Method to save a new category
+    // Method to save a new category; the cache snapshot is replaced once the row is written
     public void save(Category category) {
         categoryRepository.save(category);
+        categoryCache.refresh();
+        ledgerVersion.bump();
     }
 
 
@@ -40,10 +52,26 @@ public class CategoryService {
 
     // Method to retrieve all categories without pagination
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryCache.all();
     }
+    // Sets or clears (null) the monthly budget of a category
+    public Category setMonthlyBudget(Long id, BigDecimal monthlyBudget) {
+        if (monthlyBudget != null && monthlyBudget.signum() < 0) {
+            throw new IllegalArgumentException("Monthly budget cannot be negative");
+        }
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Category " + id + " does not exist"));
+        category.setMonthlyBudget(monthlyBudget);
+        categoryRepository.save(category);
+        categoryCache.refresh();
+        ledgerVersion.bump();
+        return category;
+    }
+
     public void deleteById(Long id) {
         categoryRepository.deleteById(id);
+        categoryCache.refresh();
+        ledgerVersion.bump();
     }
 
 
@@ -0,0 +1,671 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Optional in-memory analytics engine: every transaction as parallel primitive columns (epoch day,
+// amount in cents, category id), one column set per transaction type, sorted by day, with running
+// totals alongside. The sum or count over any date range is two binary searches and a subtraction,
+// and allocates nothing. Writes go to a small pending buffer that queries scan on top of the sorted
+// columns, and a background compaction folds it in once it grows past compact-threshold.
+// Amounts are whole cents, rounded like the rollups, so totals do not drift the way summed doubles do.
+// Writes of other instances are not in the columns: the ledger stops answering and reloads.
+@Component
+public class ColumnarLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarLedger.class);
+    private static final int LOAD_BATCH = 10_000;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    public record Stats(boolean enabled, boolean ready, int rows, int pending, long compactions, long unmatchedRemovals) {
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final boolean enabled;
+    private final int compactThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Columns[] columns = new Columns[TYPES.length];
+    private final Pending[] pending = new Pending[TYPES.length];
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+
+    // Latest state of the rows written while a load is running (null once deleted); the load
+    // takes these instead of whatever version of the row it read
+    private Map<Long, TransactionSnapshot> touchedDuringLoad;
+    private volatile boolean ready;
+    // Number of writes reported by other instances; a load that overlaps one does not make the ledger ready
+    private long remoteChanges;
+    private long compactions;
+    private long unmatchedRemovals;
+
+    public ColumnarLedger(TransactionRepository transactionRepository,
+                          @Value("${expense-tracker.analytics.enabled:false}") boolean enabled,
+                          @Value("${expense-tracker.analytics.compact-threshold:4096}") int compactThreshold) {
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.compactThreshold = compactThreshold;
+        for (int t = 0; t < TYPES.length; t++) {
+            columns[t] = Columns.EMPTY;
+            pending[t] = new Pending();
+        }
+    }
+
+    // Whether queries can be answered; false while disabled or still loading
+    public boolean ready() {
+        return ready;
+    }
+
+    // Sum of one transaction type between two dates (inclusive)
+    public double sum(Transaction.TransactionType type, LocalDate startDate, LocalDate endDate) {
+        int from = toDay(startDate);
+        int to = toDay(endDate);
+        lock.readLock().lock();
+        try {
+            return centsBetween(type.ordinal(), from, to) / 100.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of transactions of any type between two dates (inclusive)
+    public long count(LocalDate startDate, LocalDate endDate) {
+        int from = toDay(startDate);
+        int to = toDay(endDate);
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (int t = 0; t < TYPES.length; t++) {
+                count += countBetween(t, from, to);
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Per-month sums of one type from the first to the last month (inclusive), in month order
+    public Map<YearMonth, Double> sumsByMonth(Transaction.TransactionType type, YearMonth first, YearMonth last) {
+        Map<YearMonth, Double> sums = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                sums.put(month, centsBetween(type.ordinal(), toDay(month.atDay(1)), toDay(month.atEndOfMonth())) / 100.0);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return sums;
+    }
+
+    // Per-month transaction counts of any type from the first to the last month (inclusive)
+    public Map<YearMonth, Long> countsByMonth(YearMonth first, YearMonth last) {
+        Map<YearMonth, Long> counts = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                long count = 0;
+                for (int t = 0; t < TYPES.length; t++) {
+                    count += countBetween(t, toDay(month.atDay(1)), toDay(month.atEndOfMonth()));
+                }
+                counts.put(month, count);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    // Cents and row counts of one category per month; index 0 is the month the range starts in
+    public record MonthlyTotals(long[] cents, long[] counts) {
+    }
+
+    // Category x month grid of one type between two dates (inclusive): for each category with rows
+    // in the range, its totals per month. Scans only the rows inside the range.
+    public Map<Long, MonthlyTotals> totalsByCategoryAndMonth(Transaction.TransactionType type, LocalDate startDate,
+                                                             LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return Map.of();
+        }
+        YearMonth first = YearMonth.from(startDate);
+        int months = (int) first.until(YearMonth.from(endDate), ChronoUnit.MONTHS) + 1;
+        // boundaries[m] is the first day of month m in the range, boundaries[months] the day after it
+        int[] boundaries = new int[months + 1];
+        boundaries[0] = toDay(startDate);
+        for (int m = 1; m < months; m++) {
+            boundaries[m] = toDay(first.plusMonths(m).atDay(1));
+        }
+        boundaries[months] = toDay(endDate) + 1;
+
+        Map<Long, MonthlyTotals> grid = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int t = type.ordinal();
+            Columns base = columns[t];
+            int month = 0;
+            for (int i = base.lowerBound(boundaries[0]), end = base.lowerBound(boundaries[months]); i < end; i++) {
+                while (base.days[i] >= boundaries[month + 1]) {
+                    month++;
+                }
+                MonthlyTotals totals = grid.computeIfAbsent((long) base.categories[i],
+                        c -> new MonthlyTotals(new long[months], new long[months]));
+                totals.cents()[month] += base.amounts[i];
+                totals.counts()[month]++;
+            }
+            Pending changes = pending[t];
+            for (int i = 0; i < changes.size; i++) {
+                int day = changes.days[i];
+                if (day >= boundaries[0] && day < boundaries[months]) {
+                    int position = Arrays.binarySearch(boundaries, day);
+                    int m = position >= 0 ? position : -position - 2;
+                    MonthlyTotals totals = grid.computeIfAbsent((long) changes.categories[i],
+                            c -> new MonthlyTotals(new long[months], new long[months]));
+                    totals.cents()[m] += changes.signs[i] * changes.amounts[i];
+                    totals.counts()[m] += changes.signs[i];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return grid;
+    }
+
+    // Balance (all incomes minus all expenses up to and including the day) for every day of the range
+    public double[] runningBalance(LocalDate startDate, LocalDate endDate) {
+        int from = toDay(startDate);
+        int to = toDay(endDate);
+        if (to < from) {
+            return new double[0];
+        }
+        int income = Transaction.TransactionType.INCOME.ordinal();
+        int expense = Transaction.TransactionType.EXPENSE.ordinal();
+        double[] balances = new double[to - from + 1];
+        lock.readLock().lock();
+        try {
+            long balance = centsBetween(income, Integer.MIN_VALUE, from - 1) - centsBetween(expense, Integer.MIN_VALUE, from - 1);
+            for (int day = from; day <= to; day++) {
+                balance += centsBetween(income, day, day) - centsBetween(expense, day, day);
+                balances[day - from] = balance / 100.0;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return balances;
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            int rows = 0;
+            int changes = 0;
+            for (int t = 0; t < TYPES.length; t++) {
+                rows += columns[t].size;
+                changes += pending[t].size;
+            }
+            return new Stats(enabled, ready, rows, changes, compactions, unmatchedRemovals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The columns mirror the hot table: archived rows drop out, restored ones are added back
+    @TransactionalEventListener
+    public void onTierChanged(LedgerTierChangedEvent event) {
+        onLedgerChanged(event.asHotTableChange());
+    }
+
+    @TransactionalEventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        boolean compact = false;
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                event.removed().forEach(snapshot -> touchedDuringLoad.put(snapshot.id(), null));
+                event.added().forEach(snapshot -> touchedDuringLoad.put(snapshot.id(), snapshot));
+                return;
+            }
+            if (!ready) {
+                return;
+            }
+            event.removed().forEach(snapshot -> addPending(snapshot, (byte) -1));
+            event.added().forEach(snapshot -> addPending(snapshot, (byte) 1));
+            for (int t = 0; t < TYPES.length; t++) {
+                compact |= pending[t].size >= compactThreshold;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            compactInBackground();
+        }
+    }
+
+    // Until the reload has them, aggregates use the rollups. A burst of changes costs one more reload.
+    @EventListener
+    public void onRemoteLedgerChanged(RemoteLedgerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remoteChanges++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (reloadRequested.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("columnar-ledger-reload").start(() -> {
+                // Changes reported from here on ask for another reload
+                reloadRequested.set(false);
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.error("Columnar ledger reload failed, aggregates keep using the rollups", e);
+                }
+            });
+        }
+    }
+
+    // Load in the background so startup is not held up; aggregates use the rollups until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("columnar-ledger-load").start(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.error("Columnar ledger load failed, aggregates keep using the rollups", e);
+                }
+            });
+        }
+    }
+
+    // Reads every transaction from the database in id order and replaces the columns
+    public synchronized void load() {
+        long started = System.nanoTime();
+        long changesBefore;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            touchedDuringLoad = new HashMap<>();
+            changesBefore = remoteChanges;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Builder[] builders = new Builder[TYPES.length];
+            for (int t = 0; t < TYPES.length; t++) {
+                builders[t] = new Builder();
+            }
+            long lastId = 0;
+            List<Object[]> batch;
+            do {
+                batch = transactionRepository.findLedgerRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH));
+                for (Object[] row : batch) {
+                    lastId = (Long) row[0];
+                    if (row[1] != null && row[2] != null) {
+                        builders[((Transaction.TransactionType) row[2]).ordinal()].add(lastId, toDay((LocalDate) row[1]),
+                                toCents((Double) row[4]), toCategory((Long) row[3]));
+                    }
+                }
+            } while (batch.size() == LOAD_BATCH);
+
+            lock.writeLock().lock();
+            try {
+                for (Builder builder : builders) {
+                    builder.removeIds(touchedDuringLoad.keySet());
+                }
+                for (TransactionSnapshot snapshot : touchedDuringLoad.values()) {
+                    if (snapshot != null && snapshot.date() != null && snapshot.transactionType() != null) {
+                        builders[snapshot.transactionType().ordinal()].add(snapshot.id(), toDay(snapshot.date()),
+                                toCents(snapshot.amount()), toCategory(snapshot.categoryId()));
+                    }
+                }
+                for (int t = 0; t < TYPES.length; t++) {
+                    columns[t] = Columns.sortedByDay(builders[t].days, builders[t].amounts, builders[t].categories, builders[t].size);
+                    pending[t] = new Pending();
+                }
+                ready = remoteChanges == changesBefore;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Columnar ledger loaded: {} transactions in {} ms", stats().rows(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Folds the pending changes into the sorted columns. Readers keep using the old columns and the
+    // pending buffer while the new columns are built, and only wait for the swap.
+    public synchronized void compact() {
+        for (int t = 0; t < TYPES.length; t++) {
+            Columns base;
+            int count;
+            int[] days;
+            long[] amounts;
+            int[] categories;
+            byte[] signs;
+            lock.readLock().lock();
+            try {
+                base = columns[t];
+                Pending changes = pending[t];
+                count = changes.size;
+                days = Arrays.copyOf(changes.days, count);
+                amounts = Arrays.copyOf(changes.amounts, count);
+                categories = Arrays.copyOf(changes.categories, count);
+                signs = Arrays.copyOf(changes.signs, count);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (count == 0) {
+                continue;
+            }
+
+            // A removal takes out an identical row: a pending addition if there is one (the latest),
+            // otherwise a row of the sorted columns. Identical rows are interchangeable for every query.
+            boolean[] removedFromBase = new boolean[base.size];
+            boolean[] cancelled = new boolean[count];
+            int removedCount = 0;
+            int cancelledCount = 0;
+            long unmatched = 0;
+            for (int j = 0; j < count; j++) {
+                if (signs[j] > 0) {
+                    continue;
+                }
+                cancelled[j] = true;
+                cancelledCount++;
+                boolean found = false;
+                for (int i = j - 1; i >= 0 && !found; i--) {
+                    if (signs[i] > 0 && !cancelled[i] && days[i] == days[j] && amounts[i] == amounts[j]
+                            && categories[i] == categories[j]) {
+                        cancelled[i] = true;
+                        cancelledCount++;
+                        found = true;
+                    }
+                }
+                for (int i = base.lowerBound(days[j]); !found && i < base.size && base.days[i] == days[j]; i++) {
+                    if (!removedFromBase[i] && base.amounts[i] == amounts[j] && base.categories[i] == categories[j]) {
+                        removedFromBase[i] = true;
+                        removedCount++;
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    unmatched++;
+                }
+            }
+
+            int size = base.size - removedCount + count - cancelledCount;
+            int[] newDays = new int[size];
+            long[] newAmounts = new long[size];
+            int[] newCategories = new int[size];
+            int n = 0;
+            for (int i = 0; i < base.size; i++) {
+                if (!removedFromBase[i]) {
+                    newDays[n] = base.days[i];
+                    newAmounts[n] = base.amounts[i];
+                    newCategories[n++] = base.categories[i];
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                if (!cancelled[j]) {
+                    newDays[n] = days[j];
+                    newAmounts[n] = amounts[j];
+                    newCategories[n++] = categories[j];
+                }
+            }
+            Columns rebuilt = Columns.sortedByDay(newDays, newAmounts, newCategories, size);
+
+            lock.writeLock().lock();
+            try {
+                columns[t] = rebuilt;
+                pending[t].dropFirst(count);
+                unmatchedRemovals += unmatched;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            compactions++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactInBackground() {
+        if (compacting.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("columnar-ledger-compaction").start(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.error("Columnar ledger compaction failed", e);
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    private void addPending(TransactionSnapshot snapshot, byte sign) {
+        if (snapshot.date() != null && snapshot.transactionType() != null) {
+            pending[snapshot.transactionType().ordinal()].add(toDay(snapshot.date()), toCents(snapshot.amount()),
+                    toCategory(snapshot.categoryId()), sign);
+        }
+    }
+
+    // Caller holds the lock
+    private long centsBetween(int type, int from, int to) {
+        if (to < from) {
+            return 0;
+        }
+        Columns base = columns[type];
+        int lo = base.lowerBound(from);
+        int hi = base.lowerBound(to + 1);
+        long cents = base.prefix[hi] - base.prefix[lo];
+        Pending changes = pending[type];
+        for (int i = 0; i < changes.size; i++) {
+            if (changes.days[i] >= from && changes.days[i] <= to) {
+                cents += changes.signs[i] * changes.amounts[i];
+            }
+        }
+        return cents;
+    }
+
+    // Caller holds the lock
+    private long countBetween(int type, int from, int to) {
+        if (to < from) {
+            return 0;
+        }
+        Columns base = columns[type];
+        long count = base.lowerBound(to + 1) - base.lowerBound(from);
+        Pending changes = pending[type];
+        for (int i = 0; i < changes.size; i++) {
+            if (changes.days[i] >= from && changes.days[i] <= to) {
+                count += changes.signs[i];
+            }
+        }
+        return count;
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    // Same rounding as the rollups
+    private static long toCents(Double amount) {
+        return amount == null ? 0 : BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static int toCategory(Long categoryId) {
+        return categoryId == null ? 0 : Math.toIntExact(categoryId);
+    }
+
+    // Rows of one type sorted by day; prefix[i] is the sum of amounts[0..i). Never modified once built.
+    private static final class Columns {
+        static final Columns EMPTY = new Columns(new int[0], new long[0], new int[0]);
+
+        final int[] days;
+        final long[] amounts;
+        final int[] categories;
+        final long[] prefix;
+        final int size;
+
+        private Columns(int[] days, long[] amounts, int[] categories) {
+            this.days = days;
+            this.amounts = amounts;
+            this.categories = categories;
+            this.size = days.length;
+            this.prefix = new long[size + 1];
+            for (int i = 0; i < size; i++) {
+                prefix[i + 1] = prefix[i] + amounts[i];
+            }
+        }
+
+        // Counting sort over the day range: linear in rows plus days, and stable
+        static Columns sortedByDay(int[] days, long[] amounts, int[] categories, int size) {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, days[i]);
+                max = Math.max(max, days[i]);
+            }
+            int[] starts = new int[max - min + 2];
+            for (int i = 0; i < size; i++) {
+                starts[days[i] - min + 1]++;
+            }
+            for (int d = 1; d < starts.length; d++) {
+                starts[d] += starts[d - 1];
+            }
+            int[] sortedDays = new int[size];
+            long[] sortedAmounts = new long[size];
+            int[] sortedCategories = new int[size];
+            for (int i = 0; i < size; i++) {
+                int position = starts[days[i] - min]++;
+                sortedDays[position] = days[i];
+                sortedAmounts[position] = amounts[i];
+                sortedCategories[position] = categories[i];
+            }
+            return new Columns(sortedDays, sortedAmounts, sortedCategories);
+        }
+
+        // Index of the first row on or after the day
+        int lowerBound(int day) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    // Changes since the last compaction, in arrival order. A removal has sign -1.
+    private static final class Pending {
+        int[] days = new int[16];
+        long[] amounts = new long[16];
+        int[] categories = new int[16];
+        byte[] signs = new byte[16];
+        int size;
+
+        void add(int day, long amount, int category, byte sign) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+                signs = Arrays.copyOf(signs, size * 2);
+            }
+            days[size] = day;
+            amounts[size] = amount;
+            categories[size] = category;
+            signs[size++] = sign;
+        }
+
+        // Removes the first count changes, which a compaction has folded in
+        void dropFirst(int count) {
+            System.arraycopy(days, count, days, 0, size - count);
+            System.arraycopy(amounts, count, amounts, 0, size - count);
+            System.arraycopy(categories, count, categories, 0, size - count);
+            System.arraycopy(signs, count, signs, 0, size - count);
+            size -= count;
+        }
+    }
+
+    // Growable columns for a load, with ids so rows written during the load can be replaced
+    private static final class Builder {
+        long[] ids = new long[1024];
+        int[] days = new int[1024];
+        long[] amounts = new long[1024];
+        int[] categories = new int[1024];
+        int size;
+
+        void add(long id, int day, long amount, int category) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                days = Arrays.copyOf(days, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+            }
+            ids[size] = id;
+            days[size] = day;
+            amounts[size] = amount;
+            categories[size++] = category;
+        }
+
+        void removeIds(Set<Long> removed) {
+            if (removed.isEmpty()) {
+                return;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removed.contains(ids[i])) {
+                    ids[kept] = ids[i];
+                    days[kept] = days[i];
+                    amounts[kept] = amounts[i];
+                    categories[kept++] = categories[i];
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.DailyRollup;
+import com.Vivek.expenseTracker.models.DailyRollupId;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// The dashboard aggregates are read-only transactions so that they run on a replica when one is configured
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, DailyRollupId> {
+
+    // The hot table and the archive (see LedgerTierService) as one derived table
+    String BOTH_TIERS = "SELECT date, transaction_type, category_id, amount FROM transactions " +
+            "UNION ALL SELECT date, transaction_type, category_id, amount FROM transactions_archive";
+
+    // Sum of one transaction type between two dates (inclusive)
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM DailyRollup r " +
+            "WHERE r.id.transactionType = :type " +
+            "AND r.id.date BETWEEN :startDate AND :endDate")
+    @Transactional(readOnly = true)
+    BigDecimal sumAmountBetweenDates(@Param("type") Transaction.TransactionType type,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    // Sum of one transaction type over every day before the date
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM DailyRollup r " +
+            "WHERE r.id.transactionType = :type AND r.id.date < :date")
+    @Transactional(readOnly = true)
+    BigDecimal sumAmountBefore(@Param("type") Transaction.TransactionType type,
+                               @Param("date") LocalDate date);
+
+    // Number of transactions of any type between two dates (inclusive)
+    @Query("SELECT COALESCE(SUM(r.transactionCount), 0) FROM DailyRollup r " +
+            "WHERE r.id.date BETWEEN :startDate AND :endDate")
+    @Transactional(readOnly = true)
+    long countTransactionsBetweenDates(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // Per-month sums of one transaction type: rows of [month number, amount]
+    @Query("SELECT EXTRACT(MONTH FROM r.id.date), SUM(r.totalAmount) FROM DailyRollup r " +
+            "WHERE r.id.transactionType = :type " +
+            "AND r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(MONTH FROM r.id.date)")
+    @Transactional(readOnly = true)
+    List<Object[]> sumAmountByMonth(@Param("type") Transaction.TransactionType type,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // Per-month transaction counts: rows of [month number, count]
+    @Query("SELECT EXTRACT(MONTH FROM r.id.date), SUM(r.transactionCount) FROM DailyRollup r " +
+            "WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(MONTH FROM r.id.date)")
+    @Transactional(readOnly = true)
+    List<Object[]> countTransactionsByMonth(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // Income, expense and count per day in one scan: rows of [date, income, expense, count]
+    @Query("SELECT r.id.date, " +
+            "SUM(CASE WHEN r.id.transactionType = 'INCOME' THEN r.totalAmount ELSE 0 END), " +
+            "SUM(CASE WHEN r.id.transactionType = 'EXPENSE' THEN r.totalAmount ELSE 0 END), " +
+            "SUM(r.transactionCount) FROM DailyRollup r " +
+            "WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.date")
+    @Transactional(readOnly = true)
+    List<Object[]> summarizeByDay(@Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+
+    // Rollup rows of every category between two dates: rows of [category id, date, type, amount, count]
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id.categoryId, r.id.date, r.id.transactionType, r.totalAmount, r.transactionCount " +
+            "FROM DailyRollup r WHERE r.id.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findByCategoryAndDay(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    // Per category and month: rows of [category id, year, month, type, amount, count]
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id.categoryId, EXTRACT(YEAR FROM r.id.date), EXTRACT(MONTH FROM r.id.date), r.id.transactionType, " +
+            "SUM(r.totalAmount), SUM(r.transactionCount) FROM DailyRollup r " +
+            "WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.categoryId, EXTRACT(YEAR FROM r.id.date), EXTRACT(MONTH FROM r.id.date), r.id.transactionType")
+    List<Object[]> sumByCategoryAndMonth(@Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    // Per category and year: rows of [category id, year, type, amount, count]
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id.categoryId, EXTRACT(YEAR FROM r.id.date), r.id.transactionType, " +
+            "SUM(r.totalAmount), SUM(r.transactionCount) FROM DailyRollup r " +
+            "WHERE r.id.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.id.categoryId, EXTRACT(YEAR FROM r.id.date), r.id.transactionType")
+    List<Object[]> sumByCategoryAndYear(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    // Adds a delta to a rollup row, creating it if it does not exist yet
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count) " +
+            "VALUES (:date, :type, :categoryId, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)",
+            nativeQuery = true)
+    void addDelta(@Param("date") LocalDate date,
+                  @Param("type") String type,
+                  @Param("categoryId") Long categoryId,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    // Rollup rows of one category, e.g. to fold them into another one
+    List<DailyRollup> findByIdCategoryId(Long categoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_rollups WHERE category_id = :categoryId", nativeQuery = true)
+    int deleteByCategory(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_rollups", nativeQuery = true)
+    void deleteAllRows();
+
+    // Recomputes every rollup row from the raw rows of both tiers in one statement
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count) " +
+            "SELECT t.date, t.transaction_type, t.category_id, SUM(t.amount), COUNT(*) FROM (" + BOTH_TIERS + ") t " +
+            "GROUP BY t.date, t.transaction_type, t.category_id",
+            nativeQuery = true)
+    int insertFromTransactions();
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_rollups WHERE rollup_date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteBetween(@Param("startDate") LocalDate startDate,
+                      @Param("endDate") LocalDate endDate);
+
+    // insertFromTransactions for the rows between two dates (inclusive)
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count) " +
+            "SELECT t.date, t.transaction_type, t.category_id, SUM(t.amount), COUNT(*) FROM (" + BOTH_TIERS + ") t " +
+            "WHERE t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY t.date, t.transaction_type, t.category_id",
+            nativeQuery = true)
+    int insertFromTransactionsBetween(@Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    // The same grouping as insertFromTransactions over the hot table, read back for verification;
+    // ArchivedTransactionRepository.aggregateByDay covers the archive
+    @Query("SELECT t.date, t.transactionType, t.category.id, SUM(t.amount), COUNT(t) FROM Transaction t " +
+            "GROUP BY t.date, t.transactionType, t.category.id")
+    List<Object[]> aggregateTransactionsByDay();
+}
@@ -0,0 +1,543 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.DashboardDelta;
+import com.Vivek.expenseTracker.models.DashboardSummary;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live dashboard over server-sent events. Committed ledger changes are folded into one pending
+// delta, and a pusher sends it to every subscriber once per interval, so a burst of writes costs
+// one event. A new subscriber gets a "summary" event with every figure, then "delta" events.
+// The latest deltas are kept: a client reconnecting with Last-Event-ID gets what it missed merged
+// into one delta, and only falls back to a summary when that is older than the history.
+// Writes of other instances come without a delta: the next push sends every subscriber a summary.
+// Events are built under the lock but sent outside it: each subscriber has a queue drained by a
+// virtual thread of its own, so a slow client holds up only itself, and is closed once it falls
+// MAX_BACKLOG events behind (it reconnects and catches up). A summary is loaded once per event id,
+// under the lock, and shared by the subscribers that need it. It is read from the rollups at a
+// known ledger version: pending changes up to that version are in it, so they go to the other
+// subscribers as a delta before it and never in a delta after it.
+// Subscribers are async requests, so idle connections hold no thread. At midnight the periods
+// move on and every stream is closed; the clients reconnect and load a fresh summary.
+@Service
+public class DashboardStream implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStream.class);
+    private static final String[] PERIODS = {"weekly", "monthly", "yearly"};
+    private static final int MAX_BACKLOG = 64;
+
+    private static final Duration COMPLETION_TIMEOUT = Duration.ofSeconds(5);
+    private static final int SUMMARY_READS = 5;
+
+    private record Update(long sequence, Changes changes) {
+    }
+
+    private record VersionedSummary(DashboardSummary summary, long version) {
+    }
+
+    private record SummaryEvent(String id, Set<ResponseBodyEmitter.DataWithMediaType> data) implements Event {
+
+        @Override
+        public Set<ResponseBodyEmitter.DataWithMediaType> build() {
+            return data;
+        }
+    }
+
+    private final TransactionService transactionService;
+    private final LedgerVersion ledgerVersion;
+    private final ObjectMapper objectMapper;
+    private final long intervalMillis;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final int historySize;
+    private final int maxSubscribers;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guarded by pendingLock: the changes of each committed version, all of pendingDay
+    private final Object pendingLock = new Object();
+    private final TreeMap<Long, Changes> pending = new TreeMap<>();
+    private LocalDate pendingDay;
+    private volatile boolean changedElsewhere;
+
+    // Guarded by this: event ids are "<epoch>-<sequence>", with a new epoch every day
+    private final ArrayDeque<Update> history = new ArrayDeque<>();
+    private String epoch;
+    private LocalDate day;
+    private long sequence;
+    private SummaryEvent latestSummary;
+
+    private final Thread pusher;
+    private volatile boolean running = true;
+
+    public DashboardStream(TransactionService transactionService,
+                           LedgerVersion ledgerVersion,
+                           ObjectMapper objectMapper,
+                           @Value("${expense-tracker.dashboard-stream.interval:1s}") Duration interval,
+                           @Value("${expense-tracker.dashboard-stream.heartbeat:15s}") Duration heartbeat,
+                           @Value("${expense-tracker.dashboard-stream.timeout:30m}") Duration timeout,
+                           @Value("${expense-tracker.dashboard-stream.history-size:1000}") int historySize,
+                           @Value("${expense-tracker.dashboard-stream.max-subscribers:5000}") int maxSubscribers) {
+        this.transactionService = transactionService;
+        this.ledgerVersion = ledgerVersion;
+        this.objectMapper = objectMapper;
+        this.intervalMillis = interval.toMillis();
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+        this.historySize = historySize;
+        this.maxSubscribers = maxSubscribers;
+        this.day = LocalDate.now();
+        this.epoch = Long.toString(System.currentTimeMillis(), 36);
+        this.pusher = Thread.ofVirtual().name("dashboard-stream").start(this::pushLoop);
+    }
+
+    // Empty when the subscriber limit is reached. The first event is sent from the calling thread.
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        List<Subscriber> closed;
+        synchronized (this) {
+            // Pending changes go out first, so the new subscriber starts after them
+            closed = advance();
+            Changes missed = missedSince(lastEventId);
+            if (missed == null) {
+                subscriber.enqueue(summaryEvent());
+            } else if (!missed.isEmpty()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> delta =
+                        SseEmitter.event().id(eventId()).name("delta").data(toJson(missed.toDelta())).build();
+                subscriber.enqueue(() -> delta);
+            }
+            subscribers.add(subscriber);
+        }
+        closed.forEach(Subscriber::close);
+        subscriber.drain();
+        return Optional.of(emitter);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Sends the changes gathered since the last push, if any; called by the pusher every interval
+    public void push() {
+        List<Subscriber> closed;
+        synchronized (this) {
+            closed = advance();
+        }
+        closed.forEach(Subscriber::close);
+    }
+
+    // Folded in after commit, so a rolled back write is never pushed
+    @TransactionalEventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        long version = ledgerVersion.transactionVersion();
+        synchronized (pendingLock) {
+            if (!today.equals(pendingDay)) {
+                pending.clear();
+                pendingDay = today;
+            }
+            Changes changes = pending.computeIfAbsent(version, v -> new Changes(today));
+            event.removed().forEach(snapshot -> changes.add(snapshot, -1));
+            event.added().forEach(snapshot -> changes.add(snapshot, 1));
+        }
+    }
+
+    // Picked up by the next push, after the aggregate cache has dropped what it held
+    @EventListener
+    public void onRemoteLedgerChanged(RemoteLedgerChangedEvent event) {
+        changedElsewhere = true;
+    }
+
+    // Caller holds the lock. Moves the stream on and queues the event for every subscriber; returns
+    // the subscribers to close, which is done outside the lock
+    private List<Subscriber> advance() {
+        Changes changes = takePending(Long.MAX_VALUE);
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day)) {
+            return rollOver(today);
+        }
+        if (changedElsewhere) {
+            changedElsewhere = false;
+            // Every figure may have moved: the local changes are in the summary, and older event
+            // ids can no longer be caught up with deltas
+            sequence++;
+            history.clear();
+            broadcast(summaryEvent());
+            return List.of();
+        }
+        broadcastDelta(changes);
+        return List.of();
+    }
+
+    // Caller holds the lock
+    private void broadcastDelta(Changes changes) {
+        if (changes == null || changes.isEmpty() || !changes.day.equals(day)) {
+            return;
+        }
+        sequence++;
+        history.addLast(new Update(sequence, changes));
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> delta =
+                SseEmitter.event().id(eventId()).name("delta").data(toJson(changes.toDelta())).build();
+        broadcast(() -> delta);
+    }
+
+    // The pending changes of the versions up to the given one, merged; null when there are none
+    private Changes takePending(long upTo) {
+        synchronized (pendingLock) {
+            Map<Long, Changes> taken = pending.headMap(upTo, true);
+            if (taken.isEmpty()) {
+                return null;
+            }
+            Changes merged = new Changes(pendingDay);
+            taken.values().forEach(merged::addAll);
+            taken.clear();
+            return merged;
+        }
+    }
+
+    // Merged changes after the given event id; null when they are no longer all in the history
+    private Changes missedSince(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int dash = lastEventId.lastIndexOf('-');
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch) || seen > sequence) {
+            return null;
+        }
+        long oldest = history.isEmpty() ? sequence + 1 : history.getFirst().sequence();
+        if (seen < oldest - 1) {
+            return null;
+        }
+        Changes missed = new Changes(day);
+        for (Update update : history) {
+            if (update.sequence() > seen) {
+                missed.addAll(update.changes());
+            }
+        }
+        return missed;
+    }
+
+    // Caller holds the lock
+    private List<Subscriber> rollOver(LocalDate today) {
+        day = today;
+        epoch = Long.toString(System.currentTimeMillis(), 36);
+        history.clear();
+        latestSummary = null;
+        List<Subscriber> closed = List.copyOf(subscribers);
+        subscribers.clear();
+        return closed;
+    }
+
+    private void broadcast(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Caller holds the lock. The summary of the current event id, loaded once. Writes committed
+    // since the last push are in it: they are sent to the subscribers on deltas first, under the
+    // event id before the summary's.
+    private Event summaryEvent() {
+        if (latestSummary != null && latestSummary.id().equals(eventId())) {
+            return latestSummary;
+        }
+        VersionedSummary read = summary();
+        try {
+            // Their after-commit listeners put the local writes the read saw into pending
+            if (!ledgerVersion.awaitCompleted(read.version(), COMPLETION_TIMEOUT)) {
+                log.warn("Writes up to ledger version {} did not complete in {}, the summary may count some twice",
+                        read.version(), COMPLETION_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        broadcastDelta(takePending(read.version()));
+        latestSummary = new SummaryEvent(eventId(),
+                SseEmitter.event().id(eventId()).name("summary").data(toJson(read.summary())).build());
+        return latestSummary;
+    }
+
+    // Read from the primary, between two reads of the same stored ledger version. Writes that keep
+    // moving it on get the last read.
+    private VersionedSummary summary() {
+        boolean pinned = ReadYourWrites.isPinned();
+        ReadYourWrites.pin(true);
+        try {
+            long before = ledgerVersion.stored();
+            for (int read = 1; ; read++) {
+                DashboardSummary summary = transactionService.getDashboardSummaryFromRollups();
+                long after = ledgerVersion.stored();
+                if (after == before || read == SUMMARY_READS) {
+                    return new VersionedSummary(summary, after);
+                }
+                before = after;
+            }
+        } finally {
+            ReadYourWrites.pin(pinned);
+        }
+    }
+
+    private String eventId() {
+        return epoch + "-" + sequence;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void pushLoop() {
+        long nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+        while (running) {
+            try {
+                Thread.sleep(Math.min(intervalMillis, heartbeatMillis));
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                push();
+                if (System.currentTimeMillis() >= nextHeartbeat) {
+                    // Keeps proxies from closing idle streams and finds the clients that are gone
+                    Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+                    broadcast(() -> heartbeat);
+                    nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Pushing dashboard updates failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        pusher.interrupt();
+        pusher.join(Duration.ofSeconds(5));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    // An event, built when it is sent
+    private interface Event {
+        Set<ResponseBodyEmitter.DataWithMediaType> build();
+    }
+
+    // One client: its events are sent in order by one thread at a time, never under the stream's lock
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        // Starts taken: subscribe() sends the first events itself
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+        private volatile boolean lagging;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Event event) {
+            backlog.incrementAndGet();
+            queue.add(event);
+        }
+
+        // Never blocks: the events are sent by a virtual thread started when none is sending
+        void offer(Event event) {
+            if (lagging) {
+                return;
+            }
+            if (backlog.get() >= MAX_BACKLOG) {
+                lagging = true;
+                subscribers.remove(this);
+                log.debug("Closing a dashboard stream that fell {} events behind", MAX_BACKLOG);
+            }
+            enqueue(event);
+            if (sending.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("dashboard-stream-send").start(this::drain);
+            }
+        }
+
+        void drain() {
+            do {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    backlog.decrementAndGet();
+                    if (lagging) {
+                        queue.clear();
+                        emitter.complete();
+                        return;
+                    }
+                    Set<ResponseBodyEmitter.DataWithMediaType> data;
+                    try {
+                        data = event.build();
+                    } catch (RuntimeException e) {
+                        log.warn("Building a dashboard event failed, closing the stream", e);
+                        subscribers.remove(this);
+                        queue.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                    try {
+                        emitter.send(data);
+                    } catch (IOException | IllegalStateException e) {
+                        // Gone: the container reports the error to the emitter's callbacks as well
+                        subscribers.remove(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+        }
+
+        void close() {
+            emitter.complete();
+        }
+    }
+
+    // Changes of the dashboard figures, in cents and counts, for the periods around one day
+    private static final class Changes {
+        private final LocalDate day;
+        private final LocalDate startOfWeek;
+        private final long[] expenses = new long[3];
+        private final long[] incomes = new long[3];
+        private final long[] counts = new long[3];
+        private final long[] expensesByMonth = new long[12];
+        private final long[] incomesByMonth = new long[12];
+        private final long[] countsByMonth = new long[12];
+
+        Changes(LocalDate day) {
+            this.day = day;
+            this.startOfWeek = day.with(DayOfWeek.MONDAY);
+        }
+
+        // Same periods as TransactionService.getDashboardSummary
+        void add(TransactionSnapshot snapshot, int sign) {
+            LocalDate date = snapshot.date();
+            if (date == null || snapshot.amount() == null) {
+                return;
+            }
+            long cents = sign * Math.round(snapshot.amount() * 100);
+            boolean expense = snapshot.transactionType() == Transaction.TransactionType.EXPENSE;
+            if (date.getYear() == day.getYear()) {
+                int month = date.getMonthValue() - 1;
+                (expense ? expensesByMonth : incomesByMonth)[month] += cents;
+                countsByMonth[month] += sign;
+            }
+            if (date.isAfter(day)) {
+                return;
+            }
+            boolean[] inPeriod = {!date.isBefore(startOfWeek), date.getYear() == day.getYear() && date.getMonth() == day.getMonth(),
+                    date.getYear() == day.getYear()};
+            for (int i = 0; i < 3; i++) {
+                if (inPeriod[i]) {
+                    (expense ? expenses : incomes)[i] += cents;
+                    counts[i] += sign;
+                }
+            }
+        }
+
+        void addAll(Changes other) {
+            for (int i = 0; i < 3; i++) {
+                expenses[i] += other.expenses[i];
+                incomes[i] += other.incomes[i];
+                counts[i] += other.counts[i];
+            }
+            for (int i = 0; i < 12; i++) {
+                expensesByMonth[i] += other.expensesByMonth[i];
+                incomesByMonth[i] += other.incomesByMonth[i];
+                countsByMonth[i] += other.countsByMonth[i];
+            }
+        }
+
+        boolean isEmpty() {
+            for (long[] values : new long[][]{expenses, incomes, counts, expensesByMonth, incomesByMonth, countsByMonth}) {
+                for (long value : values) {
+                    if (value != 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        DashboardDelta toDelta() {
+            Map<String, Integer> transactionsByMonth = new HashMap<>();
+            for (Month month : Month.values()) {
+                if (countsByMonth[month.ordinal()] != 0) {
+                    transactionsByMonth.put(month.name(), (int) countsByMonth[month.ordinal()]);
+                }
+            }
+            return new DashboardDelta(periodMap(expenses, 100.0), periodMap(incomes, 100.0), periodMap(counts, 1.0),
+                    monthMap(expensesByMonth), monthMap(incomesByMonth), transactionsByMonth);
+        }
+
+        private static Map<String, Double> periodMap(long[] values, double divisor) {
+            Map<String, Double> map = new HashMap<>();
+            for (int i = 0; i < 3; i++) {
+                if (values[i] != 0) {
+                    map.put(PERIODS[i], values[i] / divisor);
+                }
+            }
+            return map;
+        }
+
+        private static Map<String, Double> monthMap(long[] cents) {
+            Map<String, Double> map = new HashMap<>();
+            for (Month month : Month.values()) {
+                if (cents[month.ordinal()] != 0) {
+                    map.put(month.name(), cents[month.ordinal()] / 100.0);
+                }
+            }
+            return map;
+        }
+    }
+}
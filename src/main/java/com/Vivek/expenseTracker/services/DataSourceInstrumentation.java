@@ -0,0 +1,34 @@
+package com.Vivek.expenseTracker.services;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource in a proxy that reports every statement to SqlStatementRecorder.
+// The proxy unwraps to the pool, so the Hikari pool metrics still bind to it.
+// Only the "dataSource" bean is wrapped: with replica routing the primary and replica pools sit
+// behind it, and their statements are already counted there.
+@Component
+public class DataSourceInstrumentation implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementRecorder> recorder;
+
+    public DataSourceInstrumentation(ObjectProvider<SqlStatementRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource) && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(recorder.getObject())
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,386 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over Transaction.description.
+// A "contains" search intersects the posting lists of the term's trigrams and then checks the
+// survivors against the stored text, so it returns exact matches without touching the database.
+// Matching is case-insensitive, like LIKE under MySQL's default collation.
+@Component
+public class DescriptionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DescriptionIndex.class);
+    private static final int REBUILD_BATCH = 5_000;
+
+    public record Stats(boolean enabled, boolean ready, int documents, int trigrams) {
+    }
+
+    public record Verification(long checked, long missing, long stale, long extra) {
+
+        public boolean consistent() {
+            return missing == 0 && stale == 0 && extra == 0;
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    // Ids written while a rebuild is running; the rebuild must not overwrite them with older rows
+    private Set<Long> touchedDuringRebuild;
+    // Changes of other instances reported so far; a rebuild that overlaps one does not make the index ready
+    private long remoteChanges;
+    private volatile boolean ready;
+
+    @Autowired
+    public DescriptionIndex(TransactionRepository transactionRepository,
+                            @Value("${expense-tracker.search-index.enabled:true}") boolean enabled,
+                            @Value("${expense-tracker.search-index.max-candidates:10000}") int maxCandidates) {
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // Ids of the transactions whose description contains the term. Empty when the index cannot
+    // answer: not built yet, a term shorter than one trigram, or too many matches to be worth an IN list.
+    public Optional<List<Long>> search(String term) {
+        if (!ready || term == null) {
+            return Optional.empty();
+        }
+        String needle = normalize(term);
+        if (needle.length() < 3) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Intersect from the rarest trigram up, so the working set starts small
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigrams(needle)) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return Optional.of(List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retainIn(candidates, count);
+            }
+
+            List<Long> matches = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String text = documents.get(candidates[i]);
+                if (text != null && text.contains(needle)) {
+                    if (matches.size() == maxCandidates) {
+                        return Optional.empty();
+                    }
+                    matches.add(candidates[i]);
+                }
+            }
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(long id, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            putLocked(id, description);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(enabled, ready, documents.size(), postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows moved to the archive leave the hot table, restored rows come back to it
+    @TransactionalEventListener
+    public void onTierChanged(LedgerTierChangedEvent event) {
+        onLedgerChanged(event.asHotTableChange());
+    }
+
+    @TransactionalEventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (TransactionSnapshot snapshot : event.removed()) {
+            remove(snapshot.id());
+        }
+        for (TransactionSnapshot snapshot : event.added()) {
+            put(snapshot.id(), snapshot.description());
+        }
+    }
+
+    // Rows other instances wrote are not in the index: until a rebuild has them, searches use SQL.
+    // A burst of changes costs one more rebuild.
+    @EventListener
+    public void onRemoteLedgerChanged(RemoteLedgerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remoteChanges++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuildRequested.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("description-index-rebuild").start(() -> {
+                // Changes reported from here on ask for another rebuild
+                rebuildRequested.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Description index rebuild failed, searches keep using SQL", e);
+                }
+            });
+        }
+    }
+
+    // Build in the background so startup is not held up; searches use SQL until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("description-index-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Description index rebuild failed, searches keep using SQL", e);
+                }
+            });
+        }
+    }
+
+    // Reloads every description from the database in id order; concurrent rebuilds run one after the other
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        long changesBefore;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            changesBefore = remoteChanges;
+            postings.clear();
+            documents.clear();
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long lastId = 0;
+            List<Object[]> batch;
+            do {
+                batch = transactionRepository.findDescriptionsAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : batch) {
+                        long id = (Long) row[0];
+                        if (!touchedDuringRebuild.contains(id)) {
+                            putLocked(id, (String) row[1]);
+                        }
+                        lastId = id;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            ready = remoteChanges == changesBefore;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Description index built: {} transactions in {} ms", documents.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Walks the table in id order and compares every description with the index
+    public Verification verify() {
+        long checked = 0;
+        long missing = 0;
+        long stale = 0;
+        Set<Long> seen = new HashSet<>();
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = transactionRepository.findDescriptionsAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+            lock.readLock().lock();
+            try {
+                for (Object[] row : batch) {
+                    long id = (Long) row[0];
+                    String indexed = documents.get(id);
+                    if (indexed == null) {
+                        missing++;
+                    } else if (!indexed.equals(normalize((String) row[1]))) {
+                        stale++;
+                    }
+                    seen.add(id);
+                    checked++;
+                    lastId = id;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+
+        lock.readLock().lock();
+        try {
+            long extra = documents.keySet().stream().filter(id -> !seen.contains(id)).count();
+            return new Verification(checked, missing, stale, extra);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putLocked(long id, String description) {
+        String text = normalize(description);
+        documents.put(id, text);
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, t -> new PostingList()).add(id);
+        }
+    }
+
+    private void removeLocked(long id) {
+        String previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long trigram : trigrams(previous)) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigrams of the text, three UTF-16 chars packed into one long
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[text.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(result).distinct().toArray();
+    }
+
+    // Sorted, growable array of ids. Ids mostly arrive in increasing order, which makes add an append.
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        // Keeps the first "count" candidates that are also in this list, returns how many remain
+        int retainIn(long[] candidates, int count) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (Arrays.binarySearch(ids, 0, size, candidates[i]) >= 0) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
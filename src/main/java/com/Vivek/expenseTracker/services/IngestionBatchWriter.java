@@ -0,0 +1,78 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One group commit of the ingestion API: the transactions, through TransactionBatchWriter, and
+// their idempotency keys, in a single database transaction. A key that commits always has its row.
+@Service
+public class IngestionBatchWriter {
+
+    private final TransactionBatchWriter batchWriter;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public IngestionBatchWriter(TransactionBatchWriter batchWriter, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.batchWriter = batchWriter;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // keys and transactions line up. Entries whose key is already recorded are skipped and returned
+    // with the id of the transaction the key wrote; the others are inserted and get their ids set.
+    @Transactional
+    public Map<String, Long> write(List<String> keys, List<Transaction> transactions) {
+        Map<String, Long> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT idempotency_key, transaction_id FROM ingestion_keys WHERE idempotency_key IN (:keys)",
+                Map.of("keys", keys), row -> {
+                    existing.put(row.getString(1), row.getLong(2));
+                });
+
+        List<String> newKeys = new ArrayList<>();
+        List<Transaction> newTransactions = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!existing.containsKey(keys.get(i))) {
+                newKeys.add(keys.get(i));
+                newTransactions.add(transactions.get(i));
+            }
+        }
+        if (newTransactions.isEmpty()) {
+            return existing;
+        }
+
+        batchWriter.insertAll(newTransactions);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO ingestion_keys (idempotency_key, transaction_id, created_at) VALUES (?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setString(1, newKeys.get(i));
+                        statement.setLong(2, newTransactions.get(i).getId());
+                        statement.setTimestamp(3, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return newKeys.size();
+                    }
+                });
+        return existing;
+    }
+
+    @Transactional
+    public int purgeKeysBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM ingestion_keys WHERE created_at < :cutoff",
+                Map.of("cutoff", Timestamp.valueOf(cutoff)));
+    }
+}
@@ -0,0 +1,258 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.IngestAck;
+import com.Vivek.expenseTracker.models.Transaction;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Write-behind ingestion for high-volume feeds. Entries are validated on the request thread and
+// queued; a single writer drains the queue and group-commits up to batch-size entries at a time,
+// waiting at most flush-interval for a batch to fill, so one commit covers many requests.
+// The queue is bounded: a request whose entries do not fit within enqueue-timeout is refused as a
+// whole. Every entry carries a client key; a key that was queued or committed before is reported
+// as a duplicate instead of being written twice.
+@Service
+public class IngestionService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Duration PURGE_EVERY = Duration.ofHours(1);
+
+    private record Entry(String ackId, String key, Transaction transaction) {
+    }
+
+    private final IngestionBatchWriter batchWriter;
+    private final CategoryCache categoryCache;
+    private final Validator validator;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration enqueueTimeout;
+    private final int maxAcks;
+    private final Duration keyRetention;
+
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    // Ack id of every key that is queued but not committed yet
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+    // Latest status of the most recent acknowledgements, oldest dropped first
+    private final Map<String, IngestAck> acks;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public IngestionService(IngestionBatchWriter batchWriter,
+                            CategoryCache categoryCache,
+                            Validator validator,
+                            @Value("${expense-tracker.ingest.batch-size:1000}") int batchSize,
+                            @Value("${expense-tracker.ingest.flush-interval:5ms}") Duration flushInterval,
+                            @Value("${expense-tracker.ingest.queue-capacity:50000}") int queueCapacity,
+                            @Value("${expense-tracker.ingest.enqueue-timeout:500ms}") Duration enqueueTimeout,
+                            @Value("${expense-tracker.ingest.max-acks:100000}") int maxAcks,
+                            @Value("${expense-tracker.ingest.key-retention:30d}") Duration keyRetention) {
+        this.batchWriter = batchWriter;
+        this.categoryCache = categoryCache;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.capacity = new Semaphore(queueCapacity);
+        this.enqueueTimeout = enqueueTimeout;
+        this.maxAcks = maxAcks;
+        this.keyRetention = keyRetention;
+        this.acks = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IngestAck> eldest) {
+                return size() > IngestionService.this.maxAcks;
+            }
+        };
+        this.writer = Thread.ofVirtual().name("ingestion-writer").start(this::writeLoop);
+    }
+
+    // One acknowledgement per record, in order. Empty when the queue has no room for the valid
+    // records (nothing is queued then), so the client can retry later.
+    public Optional<List<IngestAck>> enqueue(List<Map<String, String>> records) throws InterruptedException {
+        Map<String, Category> categories = categoryCache.snapshot().byName();
+        List<IngestAck> results = new ArrayList<>(records.size());
+        List<Entry> entries = new ArrayList<>(records.size());
+        for (Map<String, String> record : records) {
+            String key = record.get("key");
+            String ackId = UUID.randomUUID().toString();
+            String error = null;
+            Transaction transaction = null;
+            if (key == null || key.isBlank()) {
+                error = "key is required";
+            } else if (key.length() > MAX_KEY_LENGTH) {
+                error = "key cannot exceed " + MAX_KEY_LENGTH + " characters";
+            } else {
+                try {
+                    transaction = TransactionImportService.toTransaction(record, categories);
+                    Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+                    if (!violations.isEmpty()) {
+                        error = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                                .collect(Collectors.joining("; "));
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                results.add(new IngestAck(ackId, key, IngestAck.Status.REJECTED, null, error));
+            } else {
+                results.add(new IngestAck(ackId, key, IngestAck.Status.QUEUED, null, null));
+                entries.add(new Entry(ackId, key, transaction));
+            }
+        }
+
+        if (!running || !capacity.tryAcquire(entries.size(), enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return Optional.empty();
+        }
+        int released = 0;
+        for (Entry entry : entries) {
+            String queued = inFlight.putIfAbsent(entry.key(), entry.ackId());
+            if (queued != null) {
+                // Already on its way (a retry, or the same key twice in one request)
+                replace(results, entry.ackId(), new IngestAck(queued, entry.key(), IngestAck.Status.DUPLICATE, null, null));
+                released++;
+                continue;
+            }
+            record(new IngestAck(entry.ackId(), entry.key(), IngestAck.Status.QUEUED, null, null));
+            queue.add(entry);
+        }
+        capacity.release(released);
+        return Optional.of(results);
+    }
+
+    public Optional<IngestAck> status(String ackId) {
+        synchronized (acks) {
+            return Optional.ofNullable(acks.get(ackId));
+        }
+    }
+
+    // Entries queued and not yet written
+    public int backlog() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long nextPurge = System.nanoTime();
+        while (running || !queue.isEmpty()) {
+            try {
+                if (System.nanoTime() - nextPurge >= 0) {
+                    purgeExpiredKeys();
+                    nextPurge = System.nanoTime() + PURGE_EVERY.toNanos();
+                }
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Whatever is already waiting, then give the batch up to flush-interval to fill
+                queue.drainTo(batch, batchSize - batch.size());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    Entry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: keep draining what is queued
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        List<String> keys = batch.stream().map(Entry::key).toList();
+        List<Transaction> transactions = batch.stream().map(Entry::transaction).toList();
+        try {
+            Map<String, Long> duplicates;
+            try {
+                duplicates = batchWriter.write(keys, transactions);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance committed one of the keys in the meantime; the retry skips it
+                transactions.forEach(transaction -> transaction.setId(null));
+                duplicates = batchWriter.write(keys, transactions);
+            }
+            for (Entry entry : batch) {
+                Long existing = duplicates.get(entry.key());
+                record(existing != null
+                        ? new IngestAck(entry.ackId(), entry.key(), IngestAck.Status.DUPLICATE, existing, null)
+                        : new IngestAck(entry.ackId(), entry.key(), IngestAck.Status.COMMITTED, entry.transaction().getId(), null));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Ingestion batch of {} entries failed", batch.size(), e);
+            String message = "Database error: " + e.getMostSpecificCause().getMessage();
+            batch.forEach(entry -> record(new IngestAck(entry.ackId(), entry.key(), IngestAck.Status.FAILED, null, message)));
+        } catch (RuntimeException e) {
+            log.error("Ingestion batch of {} entries failed", batch.size(), e);
+            batch.forEach(entry -> record(new IngestAck(entry.ackId(), entry.key(), IngestAck.Status.FAILED, null, e.getMessage())));
+        } finally {
+            batch.forEach(entry -> inFlight.remove(entry.key()));
+        }
+    }
+
+    private void purgeExpiredKeys() {
+        try {
+            int purged = batchWriter.purgeKeysBefore(LocalDateTime.now().minus(keyRetention));
+            if (purged > 0) {
+                log.info("Purged {} ingestion keys older than {}", purged, keyRetention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purging expired ingestion keys failed", e);
+        }
+    }
+
+    private void record(IngestAck ack) {
+        synchronized (acks) {
+            acks.put(ack.ackId(), ack);
+        }
+    }
+
+    private static void replace(List<IngestAck> results, String ackId, IngestAck ack) {
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).ackId().equals(ackId)) {
+                results.set(i, ack);
+                return;
+            }
+        }
+    }
+
+    // Stops taking entries and writes out the ones already queued
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        if (!writer.join(Duration.ofSeconds(30))) {
+            log.warn("Ingestion writer did not finish, {} queued entries were not written", queue.size());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Published inside a write transaction; listeners that maintain derived state react after commit.
+// An insert has only "added" rows, a delete only "removed" rows, an edit has both.
+public record LedgerChangedEvent(List<TransactionSnapshot> removed, List<TransactionSnapshot> added) {
+
+    // Every date whose aggregates may have changed
+    public Set<LocalDate> affectedDates() {
+        Set<LocalDate> dates = new HashSet<>();
+        removed.forEach(snapshot -> dates.add(snapshot.date()));
+        added.forEach(snapshot -> dates.add(snapshot.date()));
+        return dates;
+    }
+}
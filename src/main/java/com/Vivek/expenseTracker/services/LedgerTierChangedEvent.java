@@ -0,0 +1,15 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+
+import java.util.List;
+
+// Rows moved between the hot table and the archive by LedgerTierService. The ledger itself does
+// not change, so totals stay put; only state built from the hot table alone has to follow.
+public record LedgerTierChangedEvent(List<TransactionSnapshot> archived, List<TransactionSnapshot> restored) {
+
+    // The same move seen from the hot table: archived rows leave it, restored rows come back
+    public LedgerChangedEvent asHotTableChange() {
+        return new LedgerChangedEvent(archived, restored);
+    }
+}
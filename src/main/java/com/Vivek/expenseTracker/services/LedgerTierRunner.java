@@ -0,0 +1,56 @@
+package com.Vivek.expenseTracker.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Startup hook for moving years between tiers.
+// Run the application with --archive-year=2023 or --restore-year=2023; the other instances keep serving meanwhile.
+@Component
+public class LedgerTierRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerTierRunner.class);
+
+    private final LedgerTierService ledgerTierService;
+
+    public LedgerTierRunner(LedgerTierService ledgerTierService) {
+        this.ledgerTierService = ledgerTierService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> archive = args.getOptionValues("archive-year");
+        List<String> restore = args.getOptionValues("restore-year");
+        if (archive != null) {
+            for (String year : archive) {
+                move(year, true);
+            }
+        }
+        if (restore != null) {
+            for (String year : restore) {
+                move(year, false);
+            }
+        }
+        if (archive != null || restore != null) {
+            ledgerTierService.years().forEach(year ->
+                    log.info("Year {}: {} ({} archived rows)", year.year(), year.state(), year.rowCount()));
+        }
+    }
+
+    private void move(String value, boolean archiving) {
+        try {
+            int year = Integer.parseInt(value);
+            if (archiving) {
+                ledgerTierService.archiveYear(year);
+            } else {
+                ledgerTierService.restoreYear(year);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot {} year '{}': {}", archiving ? "archive" : "restore", value, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Moves the rows of a closed year between the hot transactions table and transactions_archive
+// while the application keeps serving. The year is announced in archived_years first, and every
+// instance consults the archive for it before the first row moves; rows then move in chunks of
+// chunk-size, each chunk in its own short transaction (copy, delete, done), so writers are never
+// blocked for long and a row is always in exactly one table. The daily rollups span both tiers
+// and are the archived year's summaries: they are rebuilt for the year before it is archived.
+@Service
+public class LedgerTierService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerTierService.class);
+
+    private static final String HOT = "transactions";
+    private static final String ARCHIVE = "transactions_archive";
+    private static final String COLUMNS = "id, amount, date, description, transaction_type, category_id";
+
+    private final LedgerTiers tiers;
+    private final RollupService rollupService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public LedgerTierService(LedgerTiers tiers,
+                             RollupService rollupService,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${expense-tracker.tiers.chunk-size:5000}") int chunkSize) {
+        this.tiers = tiers;
+        this.rollupService = rollupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    // Returns the number of rows moved. Running it again for an archived year moves rows written
+    // to that year since; an interrupted run is resumed the same way.
+    public long archiveYear(int year) {
+        if (year >= LocalDate.now().getYear()) {
+            throw new IllegalArgumentException("Only closed years can be archived, " + year + " is not over yet");
+        }
+        LedgerTiers.Year current = tiers.year(year);
+        if (current != null && current.state() == LedgerTiers.State.RESTORING) {
+            throw new IllegalArgumentException("Year " + year + " is being restored, restore it before archiving it again");
+        }
+        LocalDate start = LocalDate.of(year, 1, 1);
+        LocalDate end = LocalDate.of(year, 12, 31);
+
+        rollupService.rebuildYear(year);
+        tiers.set(year, LedgerTiers.State.ARCHIVING, current != null ? current.rowCount() : 0);
+        awaitOtherInstances();
+
+        long moved = moveAll(HOT, ARCHIVE, start, end, true);
+        long archived = count(ARCHIVE, start, end);
+        tiers.set(year, LedgerTiers.State.ARCHIVED, archived);
+        log.info("Archived {}: moved {} rows, {} rows in the archive", year, moved, archived);
+        return moved;
+    }
+
+    // Returns the number of rows moved back to the hot table
+    public long restoreYear(int year) {
+        LedgerTiers.Year current = tiers.year(year);
+        if (current == null) {
+            throw new IllegalArgumentException("Year " + year + " is not archived");
+        }
+        LocalDate start = LocalDate.of(year, 1, 1);
+        LocalDate end = LocalDate.of(year, 12, 31);
+
+        // Lists keep reading both tables until the last row is back
+        tiers.set(year, LedgerTiers.State.RESTORING, current.rowCount());
+        long moved = moveAll(ARCHIVE, HOT, start, end, false);
+        tiers.remove(year);
+        log.info("Restored {}: moved {} rows back", year, moved);
+        return moved;
+    }
+
+    public List<LedgerTiers.Year> years() {
+        return tiers.years();
+    }
+
+    private long moveAll(String from, String to, LocalDate start, LocalDate end, boolean archiving) {
+        long moved = 0;
+        while (true) {
+            Integer chunk = transactionTemplate.execute(status -> moveChunk(from, to, start, end, archiving));
+            if (chunk == null || chunk == 0) {
+                return moved;
+            }
+            moved += chunk;
+        }
+    }
+
+    // Locks the next chunk, copies it and deletes it from where it was
+    private int moveChunk(String from, String to, LocalDate start, LocalDate end, boolean archiving) {
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("limit", chunkSize);
+        List<TransactionSnapshot> rows = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + from + " WHERE date BETWEEN :start AND :end ORDER BY id LIMIT :limit FOR UPDATE",
+                range,
+                (row, i) -> new TransactionSnapshot(row.getLong("id"), row.getObject("date", LocalDate.class),
+                        Transaction.TransactionType.valueOf(row.getString("transaction_type")),
+                        row.getLong("category_id"), row.getObject("amount", Double.class), row.getString("description")));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<Long>> ids = Map.of("ids", rows.stream().map(TransactionSnapshot::id).toList());
+        jdbcTemplate.update("INSERT INTO " + to + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + from + " WHERE id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM " + from + " WHERE id IN (:ids)", ids);
+        eventPublisher.publishEvent(archiving
+                ? new LedgerTierChangedEvent(rows, List.of())
+                : new LedgerTierChangedEvent(List.of(), rows));
+        return rows.size();
+    }
+
+    private long count(String table, LocalDate start, LocalDate end) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE date BETWEEN :start AND :end",
+                Map.of("start", start, "end", end), Long.class);
+        return count != null ? count : 0;
+    }
+
+    // Instances reload archived_years every refresh-interval; once that has passed they all read
+    // the archive for this year, so no row disappears from their lists when it moves
+    private void awaitOtherInstances() {
+        try {
+            Thread.sleep(tiers.refreshInterval());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before moving any row", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.Vivek.expenseTracker.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory copy of the archived_years table: which years the archive may hold rows for.
+// Queries consult the archive only when their date window overlaps one of these years, so the
+// common case (recent dates) stays on the hot table without an extra statement. Reloaded every
+// refresh-interval to pick up moves started by another instance; LedgerTierService waits that
+// long after announcing a move before it moves any row.
+@Component
+public class LedgerTiers implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerTiers.class);
+
+    public enum State {
+        ARCHIVING,
+        ARCHIVED,
+        RESTORING
+    }
+
+    public record Year(int year, State state, long rowCount, LocalDateTime updatedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration refreshInterval;
+    private volatile Map<Integer, Year> years = Map.of();
+    private final Thread refresher;
+
+    public LedgerTiers(JdbcTemplate jdbcTemplate,
+                       @Value("${expense-tracker.tiers.refresh-interval:10s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshInterval = refreshInterval;
+        refresh();
+        this.refresher = Thread.ofVirtual().name("ledger-tiers-refresh").start(this::refreshLoop);
+    }
+
+    // Null bounds are open
+    public boolean archiveOverlaps(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, Year> current = years;
+        if (current.isEmpty()) {
+            return false;
+        }
+        int from = startDate != null ? startDate.getYear() : Integer.MIN_VALUE;
+        int to = endDate != null ? endDate.getYear() : Integer.MAX_VALUE;
+        for (int year : current.keySet()) {
+            if (year >= from && year <= to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Year> years() {
+        List<Year> list = new ArrayList<>(years.values());
+        list.sort(Comparator.comparingInt(Year::year));
+        return list;
+    }
+
+    public Year year(int year) {
+        return years.get(year);
+    }
+
+    public Duration refreshInterval() {
+        return refreshInterval;
+    }
+
+    public void refresh() {
+        Map<Integer, Year> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT ledger_year, state, row_count, updated_at FROM archived_years", row -> {
+            loaded.put(row.getInt(1), new Year(row.getInt(1), State.valueOf(row.getString(2)), row.getLong(3),
+                    row.getTimestamp(4).toLocalDateTime()));
+        });
+        years = Map.copyOf(loaded);
+    }
+
+    void set(int year, State state, long rowCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update("UPDATE archived_years SET state = ?, row_count = ?, updated_at = ? WHERE ledger_year = ?",
+                state.name(), rowCount, now, year);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO archived_years (ledger_year, state, row_count, updated_at) VALUES (?, ?, ?, ?)",
+                    year, state.name(), rowCount, now);
+        }
+        refresh();
+    }
+
+    void remove(int year) {
+        jdbcTemplate.update("DELETE FROM archived_years WHERE ledger_year = ?", year);
+        refresh();
+    }
+
+    private void refreshLoop() {
+        while (true) {
+            try {
+                Thread.sleep(refreshInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Reloading the archived years failed, keeping the previous list", e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.interrupt();
+    }
+}
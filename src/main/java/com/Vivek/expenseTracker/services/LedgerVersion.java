@@ -0,0 +1,179 @@
+package com.Vivek.expenseTracker.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// Version of the ledger, bumped on every transaction or category write and used as the validator
+// of the JSON endpoints (see ConditionalGetFilter). It lives in the ledger_version row so every
+// instance agrees on it: a write transaction bumps the row just before it commits, and the new
+// version is served here once it has. Every refresh-interval the row is reloaded; a version moved
+// on by another instance is announced with a RemoteLedgerChangedEvent first, so the caches drop
+// what they hold before a reader can see the new version. Other instances' writes therefore show
+// up here after at most refresh-interval.
+@Component
+public class LedgerVersion implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerVersion.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final Duration refreshInterval;
+    private final Thread refresher;
+
+    // Versions bumped by transactions of this instance that have not completed yet
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    // Guarded by this for writes; changedAt is set before version, which readers check first
+    private volatile long version;
+    private volatile long changedAt;
+
+    public LedgerVersion(JdbcTemplate jdbcTemplate,
+                         ApplicationEventPublisher events,
+                         @Value("${expense-tracker.ledger-version.refresh-interval:1s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.refreshInterval = refreshInterval;
+        long[] row = load();
+        this.changedAt = row[1];
+        this.version = row[0];
+        this.refresher = Thread.ofVirtual().name("ledger-version-refresh").start(this::refreshLoop);
+    }
+
+    public long current() {
+        return version;
+    }
+
+    // Epoch millis of the last bump
+    public long changedAt() {
+        return changedAt;
+    }
+
+    // Outside a transaction the row is bumped on its own; inside one it is bumped once, with the
+    // transaction's writes, and the new version is served after it commits
+    public void bump() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            advance(increment(), System.currentTimeMillis());
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        long next = increment();
+        long at = System.currentTimeMillis();
+        synchronized (inFlight) {
+            inFlight.add(next);
+        }
+        TransactionSynchronizationManager.bindResource(this, next);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // After completion runs once every after-commit listener is done, so a reader that sees
+            // the new version never gets aggregates cached before the change
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(LedgerVersion.this);
+                if (status == STATUS_COMMITTED) {
+                    advance(next, at);
+                }
+                synchronized (inFlight) {
+                    inFlight.remove(next);
+                    inFlight.notifyAll();
+                }
+            }
+        });
+    }
+
+    // The version the current transaction commits, for its after-commit listeners; current() when
+    // it has not bumped one
+    public long transactionVersion() {
+        Long bound = (Long) TransactionSynchronizationManager.getResource(this);
+        return bound != null ? bound : version;
+    }
+
+    // The version in the shared row right now. Every write commits its bump with its rows, so a
+    // read between two equal stored() values sees exactly the writes up to that version.
+    public long stored() {
+        return load()[0];
+    }
+
+    // Waits until the transactions of this instance that bumped the version up to the given one
+    // have completed, and with them their after-commit listeners. False when the timeout ran out.
+    public boolean awaitCompleted(long upTo, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (inFlight) {
+            while (!inFlight.isEmpty() && inFlight.first() <= upTo) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                inFlight.wait(Math.max(1, remaining / 1_000_000));
+            }
+            return true;
+        }
+    }
+
+    // Bumping last keeps the row locked only while the transaction commits
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        bump();
+    }
+
+    // Picks up the versions other instances committed
+    public void refresh() {
+        long[] row = load();
+        if (row[0] > version) {
+            events.publishEvent(new RemoteLedgerChangedEvent(row[0]));
+            advance(row[0], row[1]);
+        }
+    }
+
+    private long increment() {
+        jdbcTemplate.update("UPDATE ledger_version SET version = version + 1, changed_at = ? WHERE id = 1",
+                System.currentTimeMillis());
+        return jdbcTemplate.queryForObject("SELECT version FROM ledger_version WHERE id = 1", Long.class);
+    }
+
+    private long[] load() {
+        return jdbcTemplate.queryForObject("SELECT version, changed_at FROM ledger_version WHERE id = 1",
+                (row, rowNum) -> new long[]{row.getLong(1), row.getLong(2)});
+    }
+
+    // Versions only move forward: a bump and a reload may finish in either order
+    private synchronized void advance(long next, long at) {
+        if (next > version) {
+            changedAt = Math.max(changedAt, at);
+            version = next;
+        }
+    }
+
+    private void refreshLoop() {
+        while (true) {
+            try {
+                Thread.sleep(refreshInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Reloading the ledger version failed, keeping the previous one", e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.interrupt();
+    }
+}
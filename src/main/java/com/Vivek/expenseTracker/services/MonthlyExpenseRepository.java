@@ -0,0 +1,79 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.MonthlyExpense;
+import com.Vivek.expenseTracker.models.MonthlyExpenseId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Month-to-date expense totals per category; see DailyRollupRepository for the daily grain
+public interface MonthlyExpenseRepository extends JpaRepository<MonthlyExpense, MonthlyExpenseId> {
+
+    // Every category's total for one month, for the budget overview
+    @Transactional(readOnly = true)
+    @Query("SELECT m FROM MonthlyExpense m WHERE m.id.year = :year AND m.id.month = :month")
+    List<MonthlyExpense> findByMonth(@Param("year") int year, @Param("month") int month);
+
+    List<MonthlyExpense> findByIdCategoryId(Long categoryId);
+
+    // Adds a delta to a month total, creating it if it does not exist yet
+    @Modifying
+    @Query(value = "INSERT INTO monthly_category_expenses (category_id, ledger_year, ledger_month, total_amount, transaction_count) " +
+            "VALUES (:categoryId, :year, :month, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)",
+            nativeQuery = true)
+    void addDelta(@Param("categoryId") Long categoryId,
+                  @Param("year") int year,
+                  @Param("month") int month,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_category_expenses WHERE category_id = :categoryId", nativeQuery = true)
+    int deleteByCategory(@Param("categoryId") Long categoryId);
+
+    // Running total of one month, read straight from the table (no managed entity that could be stale)
+    @Query("SELECT m.totalAmount FROM MonthlyExpense m WHERE m.id = :id")
+    BigDecimal findTotal(@Param("id") MonthlyExpenseId id);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_category_expenses", nativeQuery = true)
+    void deleteAllRows();
+
+    // Recomputes every month total from the daily rollups in one statement
+    @Modifying
+    @Query(value = "INSERT INTO monthly_category_expenses (category_id, ledger_year, ledger_month, total_amount, transaction_count) " +
+            "SELECT category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date), " +
+            "SUM(total_amount), SUM(transaction_count) FROM daily_rollups WHERE transaction_type = 'EXPENSE' " +
+            "GROUP BY category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date)",
+            nativeQuery = true)
+    int insertFromRollups();
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_category_expenses WHERE ledger_year = :year", nativeQuery = true)
+    int deleteYear(@Param("year") int year);
+
+    // insertFromRollups for the days of one year
+    @Modifying
+    @Query(value = "INSERT INTO monthly_category_expenses (category_id, ledger_year, ledger_month, total_amount, transaction_count) " +
+            "SELECT category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date), " +
+            "SUM(total_amount), SUM(transaction_count) FROM daily_rollups WHERE transaction_type = 'EXPENSE' " +
+            "AND rollup_date BETWEEN :startDate AND :endDate " +
+            "GROUP BY category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date)",
+            nativeQuery = true)
+    int insertYearFromRollups(@Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+
+    // The same grouping as insertFromRollups over every rollup row, read back for verification
+    @Query("SELECT r.id.categoryId, EXTRACT(YEAR FROM r.id.date), EXTRACT(MONTH FROM r.id.date), " +
+            "SUM(r.totalAmount), SUM(r.transactionCount) FROM DailyRollup r WHERE r.id.transactionType = 'EXPENSE' " +
+            "GROUP BY r.id.categoryId, EXTRACT(YEAR FROM r.id.date), EXTRACT(MONTH FROM r.id.date)")
+    List<Object[]> aggregateRollupsByMonth();
+}
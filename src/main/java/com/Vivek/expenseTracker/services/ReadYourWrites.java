@@ -0,0 +1,25 @@
+package com.Vivek.expenseTracker.services;
+
+// Pins the reads of the current thread to the primary database, so a user who just wrote reads
+// their own writes rather than a replica that may not have caught up yet.
+// ReadYourWritesFilter pins the requests that fall in a user's window, AggregateCache the loads of
+// the totals it keeps; AggregateFanOut carries the pin over to the threads a request fans out to.
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public static void pin(boolean pinned) {
+        if (pinned) {
+            PINNED.set(Boolean.TRUE);
+        } else {
+            PINNED.remove();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.Vivek.expenseTracker.services;
+
+// Published by LedgerVersion when another instance has committed writes: the ledger changed in
+// ways no LedgerChangedEvent of this instance describes, so derived state has to be reloaded.
+public record RemoteLedgerChangedEvent(long version) {
+}
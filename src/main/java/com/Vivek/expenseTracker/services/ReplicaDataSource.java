@@ -0,0 +1,93 @@
+package com.Vivek.expenseTracker.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Connections for read-only transactions: taken from the replicas in turn, skipping a replica for
+// retry-interval after it failed to hand out a connection. Falls back to the primary when no replica
+// is reachable, and when the current request is pinned to the primary (see ReadYourWrites).
+// A replica failing in the middle of a transaction fails that transaction; it is not retried.
+public class ReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long retryNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (DataSource replica : replicas) {
+            this.replicas.add(new Replica("replica-" + this.replicas.size(), replica));
+        }
+        this.retryNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isPinned() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            long now = System.nanoTime();
+            if (now - replica.downUntil < 0) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.downUntil = now + retryNanos;
+                log.warn("Replica {} is unavailable, reading from the other replicas or the primary: {}",
+                        replica.name, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // Each replica has its own configured user, so explicit credentials can only be the primary's.
+    // A pooled primary refuses them with SQLFeatureNotSupportedException, as JDBC has it.
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Replicas that are currently skipped
+    public List<String> unavailableReplicas() {
+        long now = System.nanoTime();
+        return replicas.stream().filter(replica -> now - replica.downUntil < 0).map(replica -> replica.name).toList();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
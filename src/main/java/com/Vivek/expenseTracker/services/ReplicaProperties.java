@@ -0,0 +1,17 @@
+package com.Vivek.expenseTracker.services;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Read replicas under expense-tracker.datasource (see ReplicaRoutingConfiguration)
+@ConfigurationProperties("expense-tracker.datasource")
+public record ReplicaProperties(List<Replica> replicas,
+                                @DefaultValue("30s") Duration replicaRetryInterval) {
+
+    public record Replica(String url, String username, String password,
+                          @DefaultValue("2s") Duration connectionTimeout) {
+    }
+}
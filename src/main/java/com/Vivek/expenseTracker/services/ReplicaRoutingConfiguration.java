@@ -0,0 +1,63 @@
+package com.Vivek.expenseTracker.services;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Active once a replica is configured. Read-only transactions (@Transactional(readOnly = true) and
+// the Spring Data read methods) run on a replica, everything else on the primary (spring.datasource).
+// The connection is only taken when the first statement runs, by which time the transaction has
+// marked it read-only, so the choice needs nothing more than the transaction attributes.
+// Flyway and Hibernate's schema validation use the primary.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("expense-tracker.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : properties.replicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            pool.setConnectionTimeout(replica.connectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start without connecting: a replica that is down at startup is skipped, not fatal
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(pool);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.replicaRetryInterval());
+    }
+
+    // The DataSource the application uses
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
@@ -0,0 +1,54 @@
+package com.Vivek.expenseTracker.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Startup hook for rollup maintenance.
+// Run the application with --rollup=rebuild or --rollup=verify to reconcile daily_rollups with transactions.
+@Component
+public class RollupMaintenanceRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupMaintenanceRunner.class);
+
+    private final RollupService rollupService;
+    private final TransactionRepository transactionRepository;
+
+    public RollupMaintenanceRunner(RollupService rollupService, TransactionRepository transactionRepository) {
+        this.rollupService = rollupService;
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> commands = args.getOptionValues("rollup");
+        if (commands == null || commands.isEmpty()) {
+            // First start after upgrading: populate the rollups once from existing data
+            if (rollupService.isEmpty() && transactionRepository.count() > 0) {
+                log.info("Daily rollups are empty, building them from existing transactions");
+                rollupService.rebuild();
+            }
+            return;
+        }
+
+        for (String command : commands) {
+            switch (command) {
+                case "rebuild" -> rollupService.rebuild();
+                case "verify" -> {
+                    List<String> mismatches = rollupService.verify();
+                    if (mismatches.isEmpty()) {
+                        log.info("Daily rollups match the transactions table");
+                    } else {
+                        log.warn("Daily rollups differ from the transactions table in {} rows", mismatches.size());
+                        mismatches.stream().limit(100).forEach(log::warn);
+                    }
+                }
+                default -> log.warn("Unknown rollup command '{}', expected 'rebuild' or 'verify'", command);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.DailyRollup;
+import com.Vivek.expenseTracker.models.DailyRollupId;
+import com.Vivek.expenseTracker.models.MonthlyExpense;
+import com.Vivek.expenseTracker.models.MonthlyExpenseId;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps the daily_rollups table, and the monthly expense totals per category that budgets are
+// checked against, in step with the transactions table and its archive
+@Service
+public class RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    // Rollups hold cents, anything below that is rounding noise from Double amounts
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+
+    private final DailyRollupRepository rollupRepository;
+    private final MonthlyExpenseRepository monthlyRepository;
+    private final ArchivedTransactionRepository archivedRepository;
+    private final AggregateCache aggregateCache;
+    private final BudgetService budgetService;
+
+    public RollupService(DailyRollupRepository rollupRepository,
+                         MonthlyExpenseRepository monthlyRepository,
+                         ArchivedTransactionRepository archivedRepository,
+                         AggregateCache aggregateCache,
+                         BudgetService budgetService) {
+        this.rollupRepository = rollupRepository;
+        this.monthlyRepository = monthlyRepository;
+        this.archivedRepository = archivedRepository;
+        this.aggregateCache = aggregateCache;
+        this.budgetService = budgetService;
+    }
+
+    // Applies the change from "removed" rows to "added" rows; must run in the writer's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Collection<TransactionSnapshot> removed, Collection<TransactionSnapshot> added) {
+        Map<DailyRollupId, Delta> deltas = new LinkedHashMap<>();
+        for (TransactionSnapshot snapshot : removed) {
+            deltas.computeIfAbsent(keyOf(snapshot), k -> new Delta()).add(snapshot.amount(), -1);
+        }
+        for (TransactionSnapshot snapshot : added) {
+            deltas.computeIfAbsent(keyOf(snapshot), k -> new Delta()).add(snapshot.amount(), 1);
+        }
+        Map<MonthlyExpenseId, Delta> monthly = new LinkedHashMap<>();
+        deltas.forEach((key, delta) -> {
+            // An edit that changes only the description leaves a zero delta behind
+            if (delta.count != 0 || delta.amount.signum() != 0) {
+                rollupRepository.addDelta(key.getDate(), key.getTransactionType().name(), key.getCategoryId(),
+                        delta.amount, delta.count);
+                if (key.getTransactionType() == Transaction.TransactionType.EXPENSE) {
+                    monthly.computeIfAbsent(MonthlyExpenseId.of(key.getCategoryId(), key.getDate()), k -> new Delta())
+                            .add(delta);
+                }
+            }
+        });
+
+        // An edit within one month of one category nets out here as well
+        Map<MonthlyExpenseId, BigDecimal> increases = new LinkedHashMap<>();
+        monthly.forEach((key, delta) -> {
+            if (delta.count != 0 || delta.amount.signum() != 0) {
+                monthlyRepository.addDelta(key.getCategoryId(), key.getYear(), key.getMonth(), delta.amount, delta.count);
+                if (delta.amount.signum() > 0) {
+                    increases.put(key, delta.amount);
+                }
+            }
+        });
+        if (!increases.isEmpty()) {
+            budgetService.checkThresholds(increases);
+        }
+    }
+
+    // Throws away every rollup row and recomputes them from the raw table
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.insertFromTransactions();
+        monthlyRepository.deleteAllRows();
+        monthlyRepository.insertFromRollups();
+        log.info("Rebuilt daily rollups: {} rows", rows);
+        clearCacheAfterCommit();
+        return rows;
+    }
+
+    // The same for the days of one year, e.g. before it is archived
+    @Transactional
+    public int rebuildYear(int year) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        rollupRepository.deleteBetween(startDate, endDate);
+        int rows = rollupRepository.insertFromTransactionsBetween(startDate, endDate);
+        monthlyRepository.deleteYear(year);
+        monthlyRepository.insertYearFromRollups(startDate, endDate);
+        log.info("Rebuilt daily rollups of {}: {} rows", year, rows);
+        clearCacheAfterCommit();
+        return rows;
+    }
+
+    // Folds the rollup rows of one category into another, e.g. for rows moved without snapshots;
+    // must run in the writer's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int moveCategory(Long sourceId, Long targetId) {
+        List<DailyRollup> rollups = rollupRepository.findByIdCategoryId(sourceId);
+        for (DailyRollup rollup : rollups) {
+            DailyRollupId key = rollup.getId();
+            rollupRepository.addDelta(key.getDate(), key.getTransactionType().name(), targetId,
+                    rollup.getTotalAmount(), rollup.getTransactionCount());
+        }
+        rollupRepository.deleteByCategory(sourceId);
+        for (MonthlyExpense total : monthlyRepository.findByIdCategoryId(sourceId)) {
+            MonthlyExpenseId key = total.getId();
+            monthlyRepository.addDelta(targetId, key.getYear(), key.getMonth(), total.getTotalAmount(), total.getTransactionCount());
+        }
+        monthlyRepository.deleteByCategory(sourceId);
+        clearCacheAfterCommit();
+        return rollups.size();
+    }
+
+    // Any window may have changed, drop every cached aggregate once the new rows are visible
+    private void clearCacheAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aggregateCache.clear();
+            }
+        });
+    }
+
+    // Compares every rollup row with a fresh aggregate of the raw rows and reports the differences
+    @Transactional(readOnly = true)
+    public List<String> verify() {
+        Map<DailyRollupId, DailyRollup> rollups = new HashMap<>();
+        for (DailyRollup rollup : rollupRepository.findAll()) {
+            rollups.put(rollup.getId(), rollup);
+        }
+
+        // A day may have rows in both tiers
+        Map<DailyRollupId, Object[]> expected = new HashMap<>();
+        List<Object[]> aggregates = new ArrayList<>(rollupRepository.aggregateTransactionsByDay());
+        aggregates.addAll(archivedRepository.aggregateByDay());
+        for (Object[] row : aggregates) {
+            DailyRollupId key = new DailyRollupId((LocalDate) row[0],
+                    (Transaction.TransactionType) row[1], (Long) row[2]);
+            expected.merge(key, new Object[]{((Number) row[3]).doubleValue(), ((Number) row[4]).longValue()},
+                    (a, b) -> new Object[]{(Double) a[0] + (Double) b[0], (Long) a[1] + (Long) b[1]});
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<DailyRollupId, Object[]> entry : expected.entrySet()) {
+            DailyRollupId key = entry.getKey();
+            BigDecimal expectedAmount = toAmount((Double) entry.getValue()[0]);
+            long expectedCount = (Long) entry.getValue()[1];
+
+            DailyRollup rollup = rollups.remove(key);
+            if (rollup == null) {
+                mismatches.add("missing " + describe(key) + ": expected " + expectedAmount + " / " + expectedCount);
+            } else if (rollup.getTransactionCount() != expectedCount
+                    || rollup.getTotalAmount().subtract(expectedAmount).abs().compareTo(TOLERANCE) >= 0) {
+                mismatches.add("wrong " + describe(key) + ": expected " + expectedAmount + " / " + expectedCount
+                        + " but was " + rollup.getTotalAmount() + " / " + rollup.getTransactionCount());
+            }
+        }
+
+        // Whatever is left has no raw transactions behind it, which is fine only if it is empty
+        for (DailyRollup rollup : rollups.values()) {
+            if (rollup.getTransactionCount() != 0 || rollup.getTotalAmount().signum() != 0) {
+                mismatches.add("orphan " + describe(rollup.getId()) + ": " + rollup.getTotalAmount()
+                        + " / " + rollup.getTransactionCount());
+            }
+        }
+
+        // Month totals against the daily rollups of their month
+        Map<MonthlyExpenseId, MonthlyExpense> totals = new HashMap<>();
+        for (MonthlyExpense total : monthlyRepository.findAll()) {
+            totals.put(total.getId(), total);
+        }
+        for (Object[] row : monthlyRepository.aggregateRollupsByMonth()) {
+            MonthlyExpenseId key = new MonthlyExpenseId((Long) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            BigDecimal expectedAmount = (BigDecimal) row[3];
+            long expectedCount = ((Number) row[4]).longValue();
+            MonthlyExpense total = totals.remove(key);
+            BigDecimal amount = total != null ? total.getTotalAmount() : BigDecimal.ZERO;
+            long count = total != null ? total.getTransactionCount() : 0;
+            if (count != expectedCount || amount.compareTo(expectedAmount) != 0) {
+                mismatches.add("wrong month " + describe(key) + ": expected " + expectedAmount + " / " + expectedCount
+                        + " but was " + amount + " / " + count);
+            }
+        }
+        for (MonthlyExpense total : totals.values()) {
+            if (total.getTransactionCount() != 0 || total.getTotalAmount().signum() != 0) {
+                mismatches.add("orphan month " + describe(total.getId()) + ": " + total.getTotalAmount()
+                        + " / " + total.getTransactionCount());
+            }
+        }
+        return mismatches;
+    }
+
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+
+    private static DailyRollupId keyOf(TransactionSnapshot snapshot) {
+        return new DailyRollupId(snapshot.date(), snapshot.transactionType(), snapshot.categoryId());
+    }
+
+    private static BigDecimal toAmount(Double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String describe(DailyRollupId key) {
+        return key.getDate() + "/" + key.getTransactionType() + "/category " + key.getCategoryId();
+    }
+
+    private static String describe(MonthlyExpenseId key) {
+        return key.getYear() + "-" + key.getMonth() + "/category " + key.getCategoryId();
+    }
+
+    private static final class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        void add(Double value, int sign) {
+            BigDecimal scaled = toAmount(value);
+            amount = sign > 0 ? amount.add(scaled) : amount.subtract(scaled);
+            count += sign;
+        }
+
+        void add(Delta other) {
+            amount = amount.add(other.amount);
+            count += other.count;
+        }
+    }
+}
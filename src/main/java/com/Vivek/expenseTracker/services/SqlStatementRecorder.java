@@ -0,0 +1,106 @@
+package com.Vivek.expenseTracker.services;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Counts and times the JDBC statements executed on the current thread while a recording is open.
+// Installed on the DataSource by DataSourceInstrumentation; RequestMetricsFilter opens one per request.
+// Threads without an open recording (startup, background jobs) are not tracked at all; work fanned
+// out for a request attaches the request's recording to its own thread (see AggregateFanOut).
+@Component
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    public record Statement(String sql, int batchSize, long elapsedNanos) {
+    }
+
+    public static final class Recording {
+        private final int maxStatements;
+        private final List<Statement> statements = new ArrayList<>();
+        private int count;
+        private long jdbcNanos;
+
+        private Recording(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        public synchronized int count() {
+            return count;
+        }
+
+        public synchronized long jdbcNanos() {
+            return jdbcNanos;
+        }
+
+        // The first statements of the recording, at most the configured number
+        public synchronized List<Statement> statements() {
+            return List.copyOf(statements);
+        }
+
+        // Statements may arrive from several threads when a request fans out
+        private synchronized void add(String sql, int batchSize, long elapsedNanos) {
+            count++;
+            jdbcNanos += elapsedNanos;
+            if (statements.size() < maxStatements && sql != null) {
+                statements.add(new Statement(sql, batchSize, elapsedNanos));
+            }
+        }
+    }
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> STARTED_AT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final int maxStatements;
+
+    public SqlStatementRecorder(@Value("${expense-tracker.metrics.max-logged-statements:100}") int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public Recording start() {
+        Recording recording = new Recording(maxStatements);
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public void stop() {
+        CURRENT.remove();
+    }
+
+    // The recording open on this thread, or null
+    public Recording current() {
+        return CURRENT.get();
+    }
+
+    // Continues a recording on another thread; pass null to detach
+    public void attach(Recording recording) {
+        if (recording == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(recording);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (CURRENT.get() != null) {
+            STARTED_AT.get()[0] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - STARTED_AT.get()[0];
+        // A JDBC batch is one execution, however many rows it carries
+        String sql = queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery();
+        recording.add(sql, execInfo.isBatch() ? execInfo.getBatchSize() : 1, elapsed);
+    }
+}
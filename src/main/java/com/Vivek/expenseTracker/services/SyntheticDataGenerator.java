@@ -0,0 +1,256 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.ImportReport;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+// Fills a database with a realistic-looking ledger for local load tests (see SyntheticDataRunner).
+// Everything follows from the plan: the same plan always gives the same rows, in date order.
+// Categories come from a catalog of spending profiles (log-normal amounts around a typical price,
+// a merchant vocabulary); rent, salary and other recurring ones get one row per month on their
+// day. The other rows are spread over the days with more of them on weekends and in December,
+// and the ledger grows over time: the last day has twice the rows of the first. Rows are written
+// through TransactionBatchWriter in chunks, so rollups, budgets and indexes stay in step.
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // What the generated ledger looks like; the rows end on endDate and span "years" years
+    public record Plan(int categories, long transactions, int years, LocalDate endDate, long seed) {
+    }
+
+    // A kind of category: how often it is used (weight), its typical amount (median) and how far
+    // amounts spread around it (sigma of the log), or the day of month it recurs on (0 = any day)
+    private record Profile(String name, Transaction.TransactionType type, double weight, double median, double spread,
+                           int dayOfMonth, String... merchants) {
+
+        boolean recurring() {
+            return dayOfMonth > 0;
+        }
+    }
+
+    private static final Transaction.TransactionType EXPENSE = Transaction.TransactionType.EXPENSE;
+    private static final Transaction.TransactionType INCOME = Transaction.TransactionType.INCOME;
+
+    private static final List<Profile> CATALOG = List.of(
+            new Profile("Groceries", EXPENSE, 22, 48, 0.6, 0, "Whole Foods", "Trader Joe's", "Safeway", "Costco", "Aldi", "Kroger"),
+            new Profile("Coffee", EXPENSE, 14, 5.5, 0.35, 0, "Starbucks", "Blue Bottle", "Dunkin", "Peet's Coffee"),
+            new Profile("Restaurants", EXPENSE, 12, 32, 0.7, 0, "Chipotle", "Olive Garden", "Sushi bar", "Pizza place", "Thai kitchen"),
+            new Profile("Transport", EXPENSE, 10, 14, 0.8, 0, "Uber", "Lyft", "Metro card", "City parking"),
+            new Profile("Shopping", EXPENSE, 8, 45, 1.0, 0, "Amazon", "Target", "IKEA", "Best Buy", "Zara"),
+            new Profile("Fuel", EXPENSE, 6, 52, 0.3, 0, "Shell", "Chevron", "BP", "Exxon"),
+            new Profile("Entertainment", EXPENSE, 5, 25, 0.7, 0, "Cinema", "Concert tickets", "Bowling", "Steam"),
+            new Profile("Health", EXPENSE, 3, 40, 0.9, 0, "CVS Pharmacy", "Walgreens", "Dental clinic", "Optician"),
+            new Profile("Travel", EXPENSE, 1.5, 320, 0.9, 0, "Delta Air Lines", "Marriott", "Airbnb", "Hertz"),
+            new Profile("Education", EXPENSE, 1, 80, 0.8, 0, "Coursera", "Bookstore", "Udemy"),
+            new Profile("Gifts", EXPENSE, 1, 60, 0.8, 0, "Birthday gift", "Charity donation", "Flowers"),
+            new Profile("Freelance", INCOME, 1, 650, 0.6, 0, "Client invoice", "Upwork payout", "Consulting fee"),
+            new Profile("Rent", EXPENSE, 0, 1650, 0.02, 1, "Monthly rent"),
+            new Profile("Insurance", EXPENSE, 0, 130, 0.1, 3, "Car insurance", "Health insurance"),
+            new Profile("Subscriptions", EXPENSE, 0, 15, 0.5, 5, "Netflix", "Spotify", "iCloud storage", "Adobe"),
+            new Profile("Utilities", EXPENSE, 0, 95, 0.25, 12, "Electric company", "Water utility", "Comcast internet"),
+            new Profile("Salary", INCOME, 0, 4200, 0.03, 25, "Payroll deposit"));
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final TransactionBatchWriter batchWriter;
+    private final int chunkSize;
+
+    public SyntheticDataGenerator(CategoryRepository categoryRepository,
+                                  CategoryCache categoryCache,
+                                  TransactionBatchWriter batchWriter,
+                                  @Value("${expense-tracker.synthetic.chunk-size:5000}") int chunkSize) {
+        this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.batchWriter = batchWriter;
+        this.chunkSize = chunkSize;
+    }
+
+    // Creates the plan's categories (reusing existing ones of the same name) and writes its rows
+    public ImportReport generate(Plan plan) {
+        long started = System.currentTimeMillis();
+        check(plan);
+        List<Category> categories = ensureCategories(plan.categories());
+
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        long[] written = {0};
+        rows(plan, categories, transaction -> {
+            chunk.add(transaction);
+            if (chunk.size() == chunkSize) {
+                batchWriter.insertAll(chunk);
+                written[0] += chunk.size();
+                chunk.clear();
+                if (written[0] % (chunkSize * 100L) == 0) {
+                    log.info("Synthetic data: {} of {} rows written", written[0], plan.transactions());
+                }
+            }
+        });
+        if (!chunk.isEmpty()) {
+            batchWriter.insertAll(chunk);
+            written[0] += chunk.size();
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        double rowsPerSecond = elapsed > 0 ? written[0] * 1000.0 / elapsed : written[0];
+        return new ImportReport(written[0], written[0], 0, List.of(), elapsed, rowsPerSecond);
+    }
+
+    // Names of the first "count" categories: the catalog in order, then the catalog again as "Groceries 2", ...
+    static List<String> categoryNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(profile(i).name() + (i < CATALOG.size() ? "" : " " + (i / CATALOG.size() + 1)));
+        }
+        return names;
+    }
+
+    // Produces the plan's rows, in date order, for the given categories (one per categoryNames entry)
+    static void rows(Plan plan, List<Category> categories, Consumer<Transaction> sink) {
+        check(plan);
+        SplittableRandom random = new SplittableRandom(plan.seed());
+        LocalDate endDate = plan.endDate();
+        LocalDate startDate = endDate.minusYears(plan.years()).plusDays(1);
+        long days = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+
+        // Recurring rows first take their share of the total; with fewer rows than that there are none
+        List<Integer> recurring = new ArrayList<>();
+        List<Integer> everyday = new ArrayList<>();
+        for (int i = 0; i < categories.size(); i++) {
+            (profile(i).recurring() ? recurring : everyday).add(i);
+        }
+        long recurringRows = 0;
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            for (int i : recurring) {
+                LocalDate due = month.atDay(Math.min(profile(i).dayOfMonth(), month.lengthOfMonth()));
+                if (!due.isBefore(startDate) && !due.isAfter(endDate)) {
+                    recurringRows++;
+                }
+            }
+        }
+        long everydayRows = plan.transactions() - recurringRows;
+        if (everydayRows < 0) {
+            recurring = List.of();
+            everydayRows = plan.transactions();
+        }
+
+        // Picking an everyday category (the catalog starts with them, so there is always one):
+        // cumulative weights, later rounds of the catalog used less
+        double[] cumulative = new double[everyday.size()];
+        double total = 0;
+        for (int j = 0; j < everyday.size(); j++) {
+            int i = everyday.get(j);
+            total += profile(i).weight() / (1 + i / CATALOG.size());
+            cumulative[j] = total;
+        }
+
+        double dayWeights = 0;
+        for (long d = 0; d < days; d++) {
+            dayWeights += dayWeight(startDate.plusDays(d), d, days);
+        }
+
+        double seen = 0;
+        long emitted = 0;
+        for (long d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            for (int i : recurring) {
+                Profile profile = profile(i);
+                if (date.getDayOfMonth() == Math.min(profile.dayOfMonth(), date.lengthOfMonth())) {
+                    String merchant = profile.merchants()[date.getMonthValue() % profile.merchants().length];
+                    sink.accept(transaction(categories.get(i), profile, date, amount(profile, random), merchant));
+                }
+            }
+            // The day's share of the everyday rows, rounded so the shares add up exactly
+            seen += dayWeight(date, d, days);
+            long target = d == days - 1 ? everydayRows : Math.round(everydayRows * seen / dayWeights);
+            for (; emitted < target; emitted++) {
+                int picked = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                int i = everyday.get(picked >= 0 ? picked : -picked - 1);
+                Profile profile = profile(i);
+                sink.accept(transaction(categories.get(i), profile, date, amount(profile, random), description(profile, random)));
+            }
+        }
+    }
+
+    private List<Category> ensureCategories(int count) {
+        Map<String, Category> existing = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            existing.put(category.getName(), category);
+        }
+        List<Category> categories = new ArrayList<>(count);
+        List<Category> created = new ArrayList<>();
+        for (String name : categoryNames(count)) {
+            Category category = existing.get(name);
+            if (category == null) {
+                category = new Category(name);
+                created.add(category);
+            }
+            categories.add(category);
+        }
+        categoryRepository.saveAll(created);
+        categoryCache.refresh();
+        log.info("Synthetic data: {} categories, {} of them new", count, created.size());
+        return categories;
+    }
+
+    private static void check(Plan plan) {
+        if (plan.categories() < 1 || plan.years() < 1 || plan.transactions() < 0) {
+            throw new IllegalArgumentException("A plan needs at least one category and one year, and no negative row count");
+        }
+    }
+
+    private static Profile profile(int index) {
+        return CATALOG.get(index % CATALOG.size());
+    }
+
+    // Relative number of rows on a day: growing over the span, busier on weekends and in December
+    private static double dayWeight(LocalDate date, long day, long days) {
+        double weight = 1 + (double) day / days;
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            weight *= 1.3;
+        }
+        if (date.getMonth() == Month.DECEMBER) {
+            weight *= 1.25;
+        }
+        return weight;
+    }
+
+    // Log-normal around the profile's median, in cents
+    private static double amount(Profile profile, SplittableRandom random) {
+        double amount = profile.median() * Math.exp(profile.spread() * random.nextGaussian());
+        return Math.max(0.5, Math.round(amount * 100) / 100.0);
+    }
+
+    // A merchant, often with a store or reference number, which gives the search index varied text
+    private static String description(Profile profile, SplittableRandom random) {
+        String merchant = profile.merchants()[random.nextInt(profile.merchants().length)];
+        return random.nextInt(10) < 4 ? merchant + " #" + (100 + random.nextInt(900)) : merchant;
+    }
+
+    private static Transaction transaction(Category category, Profile profile, LocalDate date, double amount, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        transaction.setDescription(description);
+        transaction.setTransactionType(profile.type());
+        transaction.setCategory(category);
+        return transaction;
+    }
+}
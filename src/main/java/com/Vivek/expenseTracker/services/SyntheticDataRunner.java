@@ -0,0 +1,57 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Startup hook for seeding a local database with synthetic data.
+// Run the application with --synthetic-transactions=1000000, and optionally --synthetic-categories=30,
+// --synthetic-years=3, --synthetic-end-date=2025-12-31 and --synthetic-seed=42 (same options, same rows).
+// The end date defaults to a fixed day rather than today, so a run repeated later gives the same rows.
+@Component
+public class SyntheticDataRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataRunner.class);
+
+    private static final String DEFAULT_END_DATE = "2025-12-31";
+
+    private final SyntheticDataGenerator generator;
+
+    public SyntheticDataRunner(SyntheticDataGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String transactions = option(args, "synthetic-transactions", null);
+        if (transactions == null) {
+            return;
+        }
+        try {
+            SyntheticDataGenerator.Plan plan = new SyntheticDataGenerator.Plan(
+                    Integer.parseInt(option(args, "synthetic-categories", "20")),
+                    Long.parseLong(transactions),
+                    Integer.parseInt(option(args, "synthetic-years", "3")),
+                    LocalDate.parse(option(args, "synthetic-end-date", DEFAULT_END_DATE)),
+                    Long.parseLong(option(args, "synthetic-seed", "42")));
+            log.info("Generating synthetic data: {}", plan);
+            ImportReport report = generator.generate(plan);
+            log.info("Synthetic data: {} rows in {} ms ({} rows/s)", report.rowsImported(), report.elapsedMillis(),
+                    Math.round(report.rowsPerSecond()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.warn("Cannot generate synthetic data: {}", e.getMessage());
+        }
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        return values != null && !values.isEmpty() ? values.get(values.size() - 1) : defaultValue;
+    }
+}
@@ -0,0 +1,80 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.TransactionView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Merges rows read from the hot table and from the archive, each already in list order
+final class TieredViews {
+
+    // TransactionService.NEWEST_FIRST on fetched rows
+    static final Comparator<TransactionView> NEWEST_FIRST =
+            Comparator.comparing(TransactionView::date).thenComparing(TransactionView::id).reversed();
+
+    private TieredViews() {
+    }
+
+    // The first "limit" rows of both lists, in order
+    static List<TransactionView> merge(List<TransactionView> hot, List<TransactionView> archived,
+                                       Comparator<TransactionView> order, int limit) {
+        List<TransactionView> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        Iterator<TransactionView> rows = new Merging(hot.iterator(), archived.iterator(), order);
+        while (rows.hasNext() && merged.size() < limit) {
+            merged.add(rows.next());
+        }
+        return merged;
+    }
+
+    // Lazy merge of two newest-first streams; closing it closes both
+    static Stream<TransactionView> merge(Stream<TransactionView> hot, Stream<TransactionView> archived) {
+        Iterator<TransactionView> rows = new Merging(hot.iterator(), archived.iterator(), NEWEST_FIRST);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .onClose(hot::close)
+                .onClose(archived::close);
+    }
+
+    private static final class Merging implements Iterator<TransactionView> {
+        private final Iterator<TransactionView> left;
+        private final Iterator<TransactionView> right;
+        private final Comparator<TransactionView> order;
+        private TransactionView nextLeft;
+        private TransactionView nextRight;
+
+        Merging(Iterator<TransactionView> left, Iterator<TransactionView> right, Comparator<TransactionView> order) {
+            this.left = left;
+            this.right = right;
+            this.order = order;
+            this.nextLeft = left.hasNext() ? left.next() : null;
+            this.nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public TransactionView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TransactionView row;
+            if (nextRight == null || (nextLeft != null && order.compare(nextLeft, nextRight) <= 0)) {
+                row = nextLeft;
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                row = nextRight;
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Inserts many transactions in one database transaction using JDBC batches.
+// Rollups get one aggregated delta per day/type/category and listeners get a single event.
+@Service
+public class TransactionBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int flushSize;
+
+    public TransactionBatchWriter(RollupService rollupService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int flushSize) {
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.flushSize = flushSize;
+    }
+
+    // Returns snapshots of the inserted rows, with their generated ids
+    @Transactional
+    public List<TransactionSnapshot> insertAll(List<Transaction> transactions) {
+        List<TransactionSnapshot> added = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            entityManager.persist(transaction);
+            added.add(TransactionSnapshot.of(transaction));
+            // Send a full JDBC batch and keep the persistence context from growing with the chunk
+            if ((i + 1) % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        rollupService.apply(List.of(), added);
+        eventPublisher.publishEvent(new LedgerChangedEvent(List.of(), added));
+        return added;
+    }
+}
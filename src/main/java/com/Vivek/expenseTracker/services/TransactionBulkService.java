@@ -0,0 +1,157 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.BulkReport;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Bulk changes to every transaction matching a filter. Rows go in chunks of chunk-size, each in
+// its own short transaction: the chunk is read as snapshots with a row lock, changed with one
+// UPDATE or DELETE, and its rollup deltas and ledger event are applied like any other write.
+// No entity is loaded, and a failure leaves the chunks before it applied. Archived years are
+// read-only and not touched, except by a category merge, which has to move them as well.
+@Service
+public class TransactionBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionBulkService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final CategoryCache categoryCache;
+    private final LedgerVersion ledgerVersion;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public TransactionBulkService(TransactionRepository transactionRepository,
+                                  CategoryRepository categoryRepository,
+                                  RollupService rollupService,
+                                  CategoryCache categoryCache,
+                                  LedgerVersion ledgerVersion,
+                                  NamedParameterJdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${expense-tracker.bulk.chunk-size:1000}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupService = rollupService;
+        this.categoryCache = categoryCache;
+        this.ledgerVersion = ledgerVersion;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkReport delete(Specification<Transaction> filter) {
+        long started = System.currentTimeMillis();
+        Chunks chunks = forEachChunk(filter, rows -> {
+            transactionRepository.deleteByIds(ids(rows));
+            return List.of();
+        });
+        log.info("Bulk delete: {} rows in {} chunks", chunks.rows, chunks.count);
+        return new BulkReport(chunks.rows, 0, chunks.count, System.currentTimeMillis() - started);
+    }
+
+    public BulkReport recategorize(Specification<Transaction> filter, Long categoryId) {
+        long started = System.currentTimeMillis();
+        Category category = requireCategory(categoryId);
+        Chunks chunks = recategorizeAll(filter, category);
+        log.info("Bulk recategorize to {}: {} rows in {} chunks", categoryId, chunks.rows, chunks.count);
+        return new BulkReport(chunks.rows, 0, chunks.count, System.currentTimeMillis() - started);
+    }
+
+    // Moves every transaction of the source category, archived ones included, to the target
+    // category and deletes the source
+    public BulkReport mergeCategory(Long sourceId, Long targetId) {
+        long started = System.currentTimeMillis();
+        if (sourceId.equals(targetId)) {
+            throw new IllegalArgumentException("A category cannot be merged into itself");
+        }
+        requireCategory(sourceId);
+        Category target = requireCategory(targetId);
+        Specification<Transaction> source = TransactionSpecifications.inCategory(sourceId);
+
+        Chunks chunks = recategorizeAll(source, target);
+        // The archive has no snapshots to replay: its rollup rows are the only ones left on the
+        // source category and move as they are
+        Long archived = transactionTemplate.execute(status -> {
+            int moved = jdbcTemplate.update("UPDATE transactions_archive SET category_id = :target WHERE category_id = :source",
+                    Map.of("source", sourceId, "target", targetId));
+            rollupService.moveCategory(sourceId, targetId);
+            categoryRepository.deleteById(sourceId);
+            return (long) moved;
+        });
+        categoryCache.refresh();
+        ledgerVersion.bump();
+        log.info("Merged category {} into {}: {} rows, {} archived rows", sourceId, targetId, chunks.rows, archived);
+        return new BulkReport(chunks.rows, archived != null ? archived : 0, chunks.count + 1,
+                System.currentTimeMillis() - started);
+    }
+
+    private Chunks recategorizeAll(Specification<Transaction> filter, Category category) {
+        Specification<Transaction> elsewhere = Specification.not(TransactionSpecifications.inCategory(category.getId()));
+        return forEachChunk(filter.and(elsewhere), rows -> {
+            transactionRepository.updateCategory(ids(rows), category);
+            return rows.stream()
+                    .map(row -> new TransactionSnapshot(row.id(), row.date(), row.transactionType(), category.getId(),
+                            row.amount(), row.description()))
+                    .toList();
+        });
+    }
+
+    // Runs "change" on each chunk of matching rows; it applies the change and returns the rows as they are after it
+    private Chunks forEachChunk(Specification<Transaction> filter,
+                                Function<List<TransactionSnapshot>, List<TransactionSnapshot>> change) {
+        Chunks chunks = new Chunks();
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<TransactionSnapshot> done = transactionTemplate.execute(status -> {
+                List<TransactionSnapshot> before = transactionRepository.lockSnapshots(filter, from, chunkSize);
+                if (before.isEmpty()) {
+                    return before;
+                }
+                List<TransactionSnapshot> after = change.apply(before);
+                rollupService.apply(before, after);
+                eventPublisher.publishEvent(new LedgerChangedEvent(before, after));
+                return before;
+            });
+            if (done == null || done.isEmpty()) {
+                return chunks;
+            }
+            chunks.rows += done.size();
+            chunks.count++;
+            afterId = done.get(done.size() - 1).id();
+        }
+    }
+
+    private Category requireCategory(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Category " + id + " does not exist"));
+    }
+
+    private static List<Long> ids(List<TransactionSnapshot> rows) {
+        return rows.stream().map(TransactionSnapshot::id).toList();
+    }
+
+    private static final class Chunks {
+        private long rows;
+        private int count;
+    }
+}
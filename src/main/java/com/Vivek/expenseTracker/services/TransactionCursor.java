@@ -0,0 +1,37 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.TransactionView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Position in the (date DESC, id DESC) ordering of the transactions list.
+// "backward" cursors point at the page before the position, forward ones at the page after it.
+// The filtered total is carried along so it is counted once, not on every page turn.
+record TransactionCursor(LocalDate date, long id, boolean backward, Long total) {
+
+    static TransactionCursor after(TransactionView last, Long total) {
+        return new TransactionCursor(last.date(), last.id(), false, total);
+    }
+
+    static TransactionCursor before(TransactionView first, Long total) {
+        return new TransactionCursor(first.date(), first.id(), true, total);
+    }
+
+    String encode() {
+        String raw = date + "|" + id + "|" + (backward ? "b" : "f") + "|" + (total != null ? total : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            Long total = parts[3].isEmpty() ? null : Long.valueOf(parts[3]);
+            return new TransactionCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]), "b".equals(parts[2]), total);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
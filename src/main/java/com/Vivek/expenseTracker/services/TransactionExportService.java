@@ -0,0 +1,116 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes filtered transactions to an output stream as they come off the database cursor.
+// Rows are read-only projections, so nothing accumulates on the heap however large the export is.
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${expense-tracker.export.fetch-size:1000}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Returns the number of rows written; the stream is left open for the caller.
+    // archiveFilter (TransactionService.archiveFilter) is null when no archived year is in range.
+    @Transactional(readOnly = true)
+    public long export(Specification<Transaction> filter, Specification<Transaction> archiveFilter,
+                       Format format, OutputStream output) {
+        Stream<TransactionView> hot = transactionRepository.streamViews(filter, fetchSize);
+        try (Stream<TransactionView> rows = archiveFilter == null ? hot
+                : TieredViews.merge(hot, transactionRepository.streamArchivedViews(archiveFilter, fetchSize))) {
+            return format == Format.CSV ? writeCsv(rows.iterator(), output) : writeNdjson(rows.iterator(), output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeCsv(Iterator<TransactionView> rows, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("id,date,description,amount,type,category\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionView row = rows.next();
+            writer.write(row.id() + "," + row.date() + "," + csv(row.description()) + "," + row.amount() + ","
+                    + row.transactionType() + "," + csv(row.categoryName()) + "\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<TransactionView> rows, OutputStream output) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writerFor(TransactionView.class)
+                .withRootValueSeparator("\n")
+                .writeValues(new NonClosingOutputStream(output))) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                count++;
+            }
+        }
+        output.write('\n');
+        output.flush();
+        return count;
+    }
+
+    // Quotes a CSV field when it contains a separator, quote or line break
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // Lets the JSON writer flush into the response without closing it
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
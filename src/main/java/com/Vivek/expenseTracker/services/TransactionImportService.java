@@ -0,0 +1,302 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.ImportReport;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streams a CSV or JSON upload into the transactions table.
+// Rows are parsed one at a time and written in chunks through TransactionBatchWriter,
+// so memory use depends on the chunk size, not on the size of the file.
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    // Reports keep the first rejected rows only; the counters cover all of them
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private final TransactionBatchWriter batchWriter;
+    private final CategoryCache categoryCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public TransactionImportService(TransactionBatchWriter batchWriter,
+                                    CategoryCache categoryCache,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    @Value("${expense-tracker.import.chunk-size:5000}") int chunkSize) {
+        this.batchWriter = batchWriter;
+        this.categoryCache = categoryCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReport importTransactions(InputStream input, Format format) {
+        Run run = new Run(categoryCache.snapshot().byName());
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, run);
+            } else {
+                readJson(input, run);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.flush();
+
+        ImportReport report = run.report();
+        log.info("Imported {} of {} rows ({} rejected) in {} ms, {} rows/s", report.rowsImported(), report.rowsRead(),
+                report.rowsRejected(), report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    // Header row required; columns: date, description, amount, type, category (any order)
+    private void readCsv(InputStream input, Run run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            // A quoted field may hold line breaks (the export writes descriptions that way): the
+            // record goes on until its quotes are closed and is reported under its first line
+            long recordLine = lineNumber;
+            StringBuilder record = new StringBuilder(line);
+            String next;
+            while (insideQuotes(record) && (next = reader.readLine()) != null) {
+                lineNumber++;
+                record.append('\n').append(next);
+            }
+            List<String> values = parseCsvLine(record.toString());
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            run.accept(recordLine, fields);
+        }
+    }
+
+    // Either a JSON array of objects or one object per line (NDJSON), read as a token stream
+    private void readJson(InputStream input, Run run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean inArray = token == JsonToken.START_ARRAY;
+            if (inArray) {
+                token = parser.nextToken();
+            }
+            long recordNumber = 0;
+            while (token == JsonToken.START_OBJECT) {
+                recordNumber++;
+                run.accept(recordNumber, toRecord(objectMapper.readTree(parser)));
+                token = parser.nextToken();
+            }
+            if (inArray && token != JsonToken.END_ARRAY) {
+                run.reject(recordNumber + 1, "Expected a JSON object, found " + token);
+            }
+        }
+    }
+
+    // An escaped quote ("") counts twice, so an odd count leaves a quoted field open
+    static boolean insideQuotes(CharSequence text) {
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields with "" as an escaped quote
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // Field values of one JSON object under lower-case names, the record toTransaction takes.
+    // A null is a missing value, not the text "null". Also used by the ingest endpoint.
+    public static Map<String, String> toRecord(JsonNode object) {
+        Map<String, String> record = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : object.properties()) {
+            if (!field.getValue().isNull()) {
+                record.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText());
+            }
+        }
+        return record;
+    }
+
+    // Maps one record (lower-case field names: date, description, amount, type, category) to an
+    // unsaved transaction. Bad values throw IllegalArgumentException; missing ones are left null
+    // for bean validation to report. Also used by IngestionService.
+    static Transaction toTransaction(Map<String, String> record, Map<String, Category> categories) {
+        Transaction transaction = new Transaction();
+        transaction.setDescription(record.get("description"));
+        transaction.setDate(parse("date", record, LocalDate::parse));
+        transaction.setAmount(parse("amount", record, Double::valueOf));
+        transaction.setTransactionType(parse("type", record,
+                value -> Transaction.TransactionType.valueOf(value.toUpperCase(Locale.ROOT))));
+
+        String categoryName = record.get("category");
+        if (categoryName != null && !categoryName.isBlank()) {
+            Category category = categories.get(categoryName.trim().toLowerCase(Locale.ROOT));
+            if (category == null) {
+                throw new IllegalArgumentException("Unknown category '" + categoryName + "'");
+            }
+            transaction.setCategory(category);
+        } else {
+            throw new IllegalArgumentException("Category is required");
+        }
+        return transaction;
+    }
+
+    private static <T> T parse(String column, Map<String, String> record, Function<String, T> parser) {
+        String value = record.get(column);
+        if (value == null || value.isBlank()) {
+            return null; // reported by bean validation
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    // State of one import: the pending chunk, counters and collected errors
+    private final class Run {
+        private final Map<String, Category> categories;
+        private final long started = System.nanoTime();
+        private final List<Transaction> chunk = new ArrayList<>();
+        private final List<Long> chunkLines = new ArrayList<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+
+        Run(Map<String, Category> categories) {
+            this.categories = categories;
+        }
+
+        void accept(long line, Map<String, String> record) {
+            rowsRead++;
+            Transaction transaction;
+            try {
+                transaction = toTransaction(record, categories);
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+
+            Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            chunk.add(transaction);
+            chunkLines.add(line);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                batchWriter.insertAll(chunk);
+                rowsImported += chunk.size();
+            } catch (DataAccessException e) {
+                // The chunk was rolled back as a whole
+                log.warn("Import chunk of {} rows failed", chunk.size(), e);
+                for (Long line : chunkLines) {
+                    reject(line, "Database error: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        void reject(long line, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+
+        ImportReport report() {
+            long elapsedNanos = System.nanoTime() - started;
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            return new ImportReport(rowsRead, rowsImported, rowsRejected, List.copyOf(errors),
+                    elapsedNanos / 1_000_000, rowsImported / seconds);
+        }
+    }
+}
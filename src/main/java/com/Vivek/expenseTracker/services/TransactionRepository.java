@@ -1,32 +1,62 @@
 package com.Vivek.expenseTracker.services;
 
+import com.Vivek.expenseTracker.models.Category;
 import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(:description IS NULL OR t.description LIKE %:description%) AND " +
-            "(:amount IS NULL OR " +
-            " ( :amountFilter = '=' AND t.amount = :amount ) OR " +
-            " ( :amountFilter = '<=' AND t.amount <= :amount ) OR " +
-            " ( :amountFilter = '>=' AND t.amount >= :amount )) AND " +
-            "(:startDate IS NULL OR t.date >= :startDate) AND " +
-            "(:endDate IS NULL OR t.date <= :endDate)")
-    Page<Transaction> findFilteredTransactions(
-            @Param("description") String description,
-            @Param("amount") BigDecimal amount,
-            @Param("amountFilter") String amountFilter,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            Pageable pageable);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionRepositoryCustom {
+
+    // Read-only view of one transaction with its category name, in a single select
+    @Query("SELECT new com.Vivek.expenseTracker.models.TransactionView(t.id, t.amount, t.date, t.description, " +
+            "t.transactionType, c.id, c.name) FROM Transaction t JOIN t.category c WHERE t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    // Loads a transaction with a row lock, used before edits and deletes to read its old values safely
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    // Id and description of the next rows in id order, used to (re)build the description index
+    @Query("SELECT t.id, t.description FROM Transaction t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findDescriptionsAfter(@Param("afterId") long afterId, Pageable limit);
+
+    // Id, date, type, category id and amount of the next rows in id order, used to load the ColumnarLedger
+    @Transactional(readOnly = true)
+    @Query("SELECT t.id, t.date, t.transactionType, t.category.id, t.amount FROM Transaction t " +
+            "WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findLedgerRowsAfter(@Param("afterId") long afterId, Pageable limit);
+
+    // Set-based writes of the bulk operations (TransactionBulkService): no row is loaded as an entity
+    @Modifying
+    @Query("UPDATE Transaction t SET t.category = :category WHERE t.id IN :ids")
+    int updateCategory(@Param("ids") Collection<Long> ids, @Param("category") Category category);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Filtered list for the page-number mode; see TransactionSpecifications for how the WHERE clause is built
+    default Page<Transaction> findFilteredTransactions(String description, BigDecimal amount, String amountFilter,
+                                                       LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return findAll(TransactionSpecifications.matching(description, amount, amountFilter, startDate, endDate), pageable);
+    }
 
     // Custom query to calculate the sum of expenses within a date range
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
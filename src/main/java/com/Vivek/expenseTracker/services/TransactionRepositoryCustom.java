@@ -0,0 +1,39 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Queries that Spring Data cannot derive, implemented in TransactionRepositoryImpl.
+// All of them read plain rows (TransactionView, TransactionSnapshot), no managed entities.
+public interface TransactionRepositoryCustom {
+
+    // One page of matching rows; the count query only runs when the page does not already tell the total
+    Page<TransactionView> findViews(Specification<Transaction> spec, Pageable pageable);
+
+    // At most "limit" matching rows in the given order
+    List<TransactionView> findViews(Specification<Transaction> spec, Sort sort, int limit);
+
+    // Forward-only stream of the matching rows, newest first, fetched from the driver "fetchSize" rows
+    // at a time. Must be consumed and closed inside a transaction.
+    Stream<TransactionView> streamViews(Specification<Transaction> spec, int fetchSize);
+
+    // The same reads against the archive (ArchivedTransaction); the specification is written for
+    // Transaction and applied by attribute name. Rows from "offset" on, without a count.
+    List<TransactionView> findArchivedViews(Specification<Transaction> spec, Sort sort, long offset, int limit);
+
+    long countArchived(Specification<Transaction> spec);
+
+    Stream<TransactionView> streamArchivedViews(Specification<Transaction> spec, int fetchSize);
+
+    // Snapshots of the next matching rows after "afterId" in id order, locked for update: one chunk
+    // of a bulk operation, read as plain values
+    List<TransactionSnapshot> lockSnapshots(Specification<Transaction> spec, long afterId, int limit);
+}
@@ -0,0 +1,136 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.ArchivedTransaction;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import com.Vivek.expenseTracker.models.TransactionView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TransactionView> findViews(Specification<Transaction> spec, Pageable pageable) {
+        CriteriaQuery<TransactionView> query = viewQuery(Transaction.class, spec, pageable.getSort());
+        List<TransactionView> content = pageable.isPaged()
+                ? entityManager.createQuery(query)
+                        .setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize())
+                        .getResultList()
+                : entityManager.createQuery(query).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(Transaction.class, spec));
+    }
+
+    @Override
+    public List<TransactionView> findViews(Specification<Transaction> spec, Sort sort, int limit) {
+        return entityManager.createQuery(viewQuery(Transaction.class, spec, sort))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TransactionView> streamViews(Specification<Transaction> spec, int fetchSize) {
+        return stream(Transaction.class, spec, fetchSize);
+    }
+
+    @Override
+    public List<TransactionView> findArchivedViews(Specification<Transaction> spec, Sort sort, long offset, int limit) {
+        return entityManager.createQuery(viewQuery(ArchivedTransaction.class, spec, sort))
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countArchived(Specification<Transaction> spec) {
+        return countMatching(ArchivedTransaction.class, spec);
+    }
+
+    @Override
+    public Stream<TransactionView> streamArchivedViews(Specification<Transaction> spec, int fetchSize) {
+        return stream(ArchivedTransaction.class, spec, fetchSize);
+    }
+
+    private Stream<TransactionView> stream(Class<?> entity, Specification<Transaction> spec, int fetchSize) {
+        return entityManager.createQuery(viewQuery(entity, spec, TransactionService.NEWEST_FIRST))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<TransactionSnapshot> lockSnapshots(Specification<Transaction> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionSnapshot> query = cb.createQuery(TransactionSnapshot.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(cb.construct(TransactionSnapshot.class,
+                root.get("id"), root.get("date"), root.get("transactionType"), root.get("category").get("id"),
+                root.get("amount"), root.get("description")));
+        Predicate next = cb.greaterThan(root.get("id"), afterId);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.where(predicate != null ? cb.and(predicate, next) : next);
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // entity is Transaction or ArchivedTransaction, which share attribute names
+    private CriteriaQuery<TransactionView> viewQuery(Class<?> entity, Specification<Transaction> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionView> query = cb.createQuery(TransactionView.class);
+        Root<Transaction> root = asTransactionRoot(query.from(entity));
+        Join<Transaction, Category> category = root.join("category");
+
+        query.select(cb.construct(TransactionView.class,
+                root.get("id"), root.get("amount"), root.get("date"), root.get("description"),
+                root.get("transactionType"), category.get("id"), category.get("name")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    private long countMatching(Class<?> entity, Specification<Transaction> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = asTransactionRoot(query.from(entity));
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // The specifications only look attributes up by name, which works on either root
+    @SuppressWarnings("unchecked")
+    private static Root<Transaction> asTransactionRoot(Root<?> root) {
+        return (Root<Transaction>) root;
+    }
+}
@@ -1,182 +1,522 @@
 package com.Vivek.expenseTracker.services;
 
+import com.Vivek.expenseTracker.models.CursorPage;
+import com.Vivek.expenseTracker.models.DashboardSummary;
 import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionSnapshot;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Month;
 import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
+    // Order of the transactions list, the id breaks ties between rows on the same day
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
 
-    public TransactionService(TransactionRepository transactionRepository) {
+    private final TransactionRepository transactionRepository;
+    private final DailyRollupRepository rollupRepository;
+    private final RollupService rollupService;
+    private final AggregateCache aggregateCache;
+    private final DescriptionIndex descriptionIndex;
+    private final AggregateFanOut aggregateFanOut;
+    private final ColumnarLedger columnarLedger;
+    private final LedgerTiers ledgerTiers;
+    private final ArchivedTransactionRepository archivedRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPageSize;
+
+    public TransactionService(TransactionRepository transactionRepository,
+                              DailyRollupRepository rollupRepository,
+                              RollupService rollupService,
+                              AggregateCache aggregateCache,
+                              DescriptionIndex descriptionIndex,
+                              AggregateFanOut aggregateFanOut,
+                              ColumnarLedger columnarLedger,
+                              LedgerTiers ledgerTiers,
+                              ArchivedTransactionRepository archivedRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${expense-tracker.transactions.max-page-size:1000}") int maxPageSize) {
         this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.aggregateCache = aggregateCache;
+        this.descriptionIndex = descriptionIndex;
+        this.aggregateFanOut = aggregateFanOut;
+        this.columnarLedger = columnarLedger;
+        this.ledgerTiers = ledgerTiers;
+        this.archivedRepository = archivedRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
     }
 
-    public Page<Transaction> findTransactions(String description, BigDecimal amount, String amountFilter,
-                                              LocalDate startDate, LocalDate endDate, Pageable pageable) {
-        return transactionRepository.findFilteredTransactions(description, amount, amountFilter, startDate, endDate, pageable);
+    // List pages are read as TransactionView rows: one joined select, plus a count when needed.
+    // Read-only transactions run on a replica when replicas are configured.
+    // When the dates reach into an archived year the archive is read as well: its rows follow the
+    // hot rows, so a page is the end of one and the start of the other.
+    @Transactional(readOnly = true)
+    public Page<TransactionView> findTransactions(String description, BigDecimal amount, String amountFilter,
+                                                  LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        Page<TransactionView> hot = transactionRepository.findViews(filter(description, amount, amountFilter, startDate, endDate), pageable);
+        Specification<Transaction> archiveFilter = archiveFilter(description, amount, amountFilter, startDate, endDate);
+        if (archiveFilter == null) {
+            return hot;
+        }
+        long archivedTotal = transactionRepository.countArchived(archiveFilter);
+        List<TransactionView> content = new ArrayList<>(hot.getContent());
+        if (pageable.isUnpaged()) {
+            content.addAll(transactionRepository.findArchivedViews(archiveFilter, pageable.getSort(), 0, Integer.MAX_VALUE));
+        } else if (content.size() < pageable.getPageSize() && archivedTotal > 0) {
+            long offset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            content.addAll(transactionRepository.findArchivedViews(archiveFilter, pageable.getSort(), offset,
+                    pageable.getPageSize() - content.size()));
+        }
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedTotal);
+    }
+
+    // The list filter, with the description search answered by the in-memory index when it can
+    // be: the remaining filters then only look at the matching ids instead of a LIKE scan.
+    public Specification<Transaction> filter(String description, BigDecimal amount, String amountFilter,
+                                             LocalDate startDate, LocalDate endDate) {
+        Specification<Transaction> descriptionSpec = null;
+        if (description != null && !description.isEmpty()) {
+            descriptionSpec = descriptionIndex.search(description)
+                    .map(TransactionSpecifications::idIn)
+                    .orElseGet(() -> TransactionSpecifications.descriptionContains(description));
+        }
+        return TransactionSpecifications.matching(descriptionSpec, amount, amountFilter, startDate, endDate);
+    }
+
+    // The list filter for the archive, or null when the dates do not reach into an archived year.
+    // The description index only covers the hot table, so archived descriptions are matched with LIKE.
+    public Specification<Transaction> archiveFilter(String description, BigDecimal amount, String amountFilter,
+                                                    LocalDate startDate, LocalDate endDate) {
+        if (!ledgerTiers.archiveOverlaps(startDate, endDate)) {
+            return null;
+        }
+        return TransactionSpecifications.matching(description, amount, amountFilter, startDate, endDate);
+    }
+
+    // Keyset-paginated list, newest first. Latency does not depend on how deep the page is,
+    // and the total is only counted when asked for, once, then carried along in the cursors.
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionView> findTransactionsByCursor(String description, BigDecimal amount, String amountFilter,
+                                                                LocalDate startDate, LocalDate endDate,
+                                                                String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        TransactionCursor position = cursor != null && !cursor.isEmpty() ? TransactionCursor.decode(cursor) : null;
+        Specification<Transaction> filter = filter(description, amount, amountFilter, startDate, endDate);
+        Specification<Transaction> archiveFilter = archiveFilter(description, amount, amountFilter, startDate, endDate);
+
+        Long total = position != null ? position.total() : null;
+        if (total == null && withTotal) {
+            total = transactionRepository.count(filter);
+            if (archiveFilter != null) {
+                total += transactionRepository.countArchived(archiveFilter);
+            }
+        }
+
+        Specification<Transaction> spec = filter;
+        Specification<Transaction> archiveSpec = archiveFilter;
+        if (position != null) {
+            Specification<Transaction> keyset = position.backward()
+                    ? TransactionSpecifications.before(position.date(), position.id())
+                    : TransactionSpecifications.after(position.date(), position.id());
+            spec = filter.and(keyset);
+            archiveSpec = archiveFilter != null ? archiveFilter.and(keyset) : null;
+        }
+        // Walking backward fetches the rows towards newer dates, oldest first
+        Sort sort = position != null && position.backward() ? NEWEST_FIRST.reverse() : NEWEST_FIRST;
+        // One extra row tells whether there is anything beyond this page; a plain limit issues no COUNT
+        List<TransactionView> rows = transactionRepository.findViews(spec, sort, size + 1);
+        if (archiveSpec != null) {
+            // The same window of the archive, merged in (date, id) order
+            List<TransactionView> archived = transactionRepository.findArchivedViews(archiveSpec, sort, 0, size + 1);
+            rows = TieredViews.merge(rows, archived,
+                    sort == NEWEST_FIRST ? TieredViews.NEWEST_FIRST : TieredViews.NEWEST_FIRST.reversed(), size + 1);
+        }
+        boolean moreInDirection = rows.size() > size;
+        List<TransactionView> content = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+
+        boolean hasNext;
+        boolean hasPrevious;
+        if (position != null && position.backward()) {
+            // Fetched oldest first, flip back to the list order
+            Collections.reverse(content);
+            hasPrevious = moreInDirection;
+            hasNext = true;
+        } else {
+            hasNext = moreInDirection;
+            hasPrevious = position != null;
+        }
+
+        String next = hasNext && !content.isEmpty()
+                ? TransactionCursor.after(content.get(content.size() - 1), total).encode() : null;
+        String previous = hasPrevious && !content.isEmpty()
+                ? TransactionCursor.before(content.get(0), total).encode() : null;
+        return new CursorPage<>(content, size, next, previous, total);
     }
 
     public Transaction getTransactionById(Long id) {
         return transactionRepository.findById(id).orElse(null);
     }
 
-    // Fetch total expenses for month, week, year
-    public Map<String, Double> getTotalExpenses() {
-        Map<String, Double> totalExpenses = new HashMap<>();
+    @Transactional(readOnly = true)
+    public TransactionView getTransactionView(Long id) {
+        return transactionRepository.findViewById(id)
+                .or(() -> archivedRepository.findViewById(id))
+                .orElse(null);
+    }
 
-        // Current date
-        LocalDate currentDate = LocalDate.now();
+    // Saves a new transaction and adds it to the daily rollups in the same database transaction
+    @Transactional
+    public Transaction save(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        applyChange(List.of(), List.of(TransactionSnapshot.of(saved)));
+        return saved;
+    }
 
-        // Calculate total expenses for the current month
-        LocalDate firstDayOfMonth = currentDate.with(TemporalAdjusters.firstDayOfMonth());
-        double monthlyExpense = transactionRepository.sumExpensesBetweenDates(firstDayOfMonth, currentDate);
-        totalExpenses.put("monthly", monthlyExpense);
+    // Replaces an existing transaction, moving its contribution between rollup rows
+    @Transactional
+    public Transaction update(Long id, Transaction transaction) {
+        // Lock the row so two concurrent edits cannot both subtract the same old values
+        List<TransactionSnapshot> before = transactionRepository.findByIdForUpdate(id)
+                .map(existing -> List.of(TransactionSnapshot.of(existing)))
+                .orElse(List.of());
+        // Archived rows are read-only until their year is restored
+        if (before.isEmpty() && archivedRepository.existsById(id)) {
+            throw new IllegalArgumentException("Transaction " + id + " belongs to an archived year and cannot be edited");
+        }
 
-        // Calculate total expenses for the current week (assuming week starts on Monday)
-        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
-        double weeklyExpense = transactionRepository.sumExpensesBetweenDates(startOfWeek, currentDate);
-        totalExpenses.put("weekly", weeklyExpense);
+        transaction.setId(id);
+        Transaction saved = transactionRepository.save(transaction);
+        applyChange(before, List.of(TransactionSnapshot.of(saved)));
+        return saved;
+    }
 
-        // Calculate total expenses for the current year
-        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
-        double yearlyExpense = transactionRepository.sumExpensesBetweenDates(firstDayOfYear, currentDate);
-        totalExpenses.put("yearly", yearlyExpense);
+    // Deletes a transaction and removes it from the daily rollups
+    @Transactional
+    public void deleteById(Long id) {
+        Optional<Transaction> existing = transactionRepository.findByIdForUpdate(id);
+        if (existing.isEmpty()) {
+            if (archivedRepository.existsById(id)) {
+                throw new IllegalArgumentException("Transaction " + id + " belongs to an archived year and cannot be deleted");
+            }
+            return;
+        }
+        TransactionSnapshot before = TransactionSnapshot.of(existing.get());
+        transactionRepository.delete(existing.get());
+        applyChange(List.of(before), List.of());
+    }
 
-        return totalExpenses;
+    // Updates the rollups now and lets after-commit listeners (the aggregate cache) catch up
+    private void applyChange(List<TransactionSnapshot> removed, List<TransactionSnapshot> added) {
+        rollupService.apply(removed, added);
+        eventPublisher.publishEvent(new LedgerChangedEvent(removed, added));
     }
 
+    // Fetch total expenses for month, week, year.
+    // The three periods are independent queries and run concurrently (see AggregateFanOut).
+    public Map<String, Double> getTotalExpenses() {
+        return invokeAll(totalsByPeriod(Transaction.TransactionType.EXPENSE));
+    }
+
+    public CompletableFuture<Map<String, Double>> getTotalExpensesAsync() {
+        return submitAll(totalsByPeriod(Transaction.TransactionType.EXPENSE));
+    }
 
     // Method to retrieve total incomes for the current month, week, and year
     public Map<String, Double> getTotalIncomes() {
-        Map<String, Double> totalIncomes = new HashMap<>();
+        return invokeAll(totalsByPeriod(Transaction.TransactionType.INCOME));
+    }
 
-        // Get current date
-        LocalDate currentDate = LocalDate.now();
+    public CompletableFuture<Map<String, Double>> getTotalIncomesAsync() {
+        return submitAll(totalsByPeriod(Transaction.TransactionType.INCOME));
+    }
 
-        // Calculate total incomes for the current month
-        LocalDate firstDayOfMonth = currentDate.with(TemporalAdjusters.firstDayOfMonth());
-        double monthlyIncome = transactionRepository.sumIncomesBetweenDates(firstDayOfMonth, currentDate);
-        totalIncomes.put("monthly", monthlyIncome);
+    // Method to retrieve the number of transactions for the current month, week, and year
+    public Map<String, Double> getTotalTransactions() {
+        return invokeAll(countsByPeriod());
+    }
 
-        // Calculate total incomes for the current week (assuming week starts on Monday)
-        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
-        double weeklyIncome = transactionRepository.sumIncomesBetweenDates(startOfWeek, currentDate);
-        totalIncomes.put("weekly", weeklyIncome);
+    public CompletableFuture<Map<String, Double>> getTotalTransactionsAsync() {
+        return submitAll(countsByPeriod());
+    }
 
-        // Calculate total incomes for the current year
-        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
-        double yearlyIncome = transactionRepository.sumIncomesBetweenDates(firstDayOfYear, currentDate);
-        totalIncomes.put("yearly", yearlyIncome);
+    // Period queries fan out to the database, except with the columnar ledger: its lookups take
+    // microseconds, so they run right here
+    private Map<String, Double> invokeAll(Map<String, Callable<Double>> tasks) {
+        return columnarLedger.ready() ? callAll(tasks) : aggregateFanOut.invokeAll(tasks);
+    }
 
-        return totalIncomes;
+    private CompletableFuture<Map<String, Double>> submitAll(Map<String, Callable<Double>> tasks) {
+        return columnarLedger.ready() ? CompletableFuture.completedFuture(callAll(tasks)) : aggregateFanOut.submitAll(tasks);
     }
 
+    private static Map<String, Double> callAll(Map<String, Callable<Double>> tasks) {
+        Map<String, Double> results = new LinkedHashMap<>();
+        tasks.forEach((key, task) -> {
+            try {
+                results.put(key, task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return results;
+    }
 
-    // Method to retrieve total incomes for the current month, week, and year
-    public Map<String, Double> getTotalTransactions() {
-        Map<String, Double> totalIncomes = new HashMap<>();
+    private Map<String, Callable<Double>> countsByPeriod() {
+        Map<String, Callable<Double>> totalTransactions = new LinkedHashMap<>();
 
         // Get current date
         LocalDate currentDate = LocalDate.now();
 
-        // Calculate total incomes for the current month
+        // Current month, current week (assuming week starts on Monday) and current year
         LocalDate firstDayOfMonth = currentDate.with(TemporalAdjusters.firstDayOfMonth());
-        double monthlyIncome = transactionRepository.countTransactionsBetweenDates(firstDayOfMonth, currentDate);
-        totalIncomes.put("monthly", monthlyIncome);
+        totalTransactions.put("monthly", () -> countBetween(firstDayOfMonth, currentDate));
 
-        // Calculate total incomes for the current week (assuming week starts on Monday)
         LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
-        double weeklyIncome = transactionRepository.countTransactionsBetweenDates(startOfWeek, currentDate);
-        totalIncomes.put("weekly", weeklyIncome);
+        totalTransactions.put("weekly", () -> countBetween(startOfWeek, currentDate));
 
-        // Calculate total incomes for the current year
         LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
-        double yearlyIncome = transactionRepository.countTransactionsBetweenDates(firstDayOfYear, currentDate);
-        totalIncomes.put("yearly", yearlyIncome);
+        totalTransactions.put("yearly", () -> countBetween(firstDayOfYear, currentDate));
 
-        return totalIncomes;
+        return totalTransactions;
     }
 
 
     public Map<String, Double> getTotalIncomesByMonth() {
-        Map<String, Double> totalIncomesByMonth = new HashMap<>();
+        return totalsByMonth(Transaction.TransactionType.INCOME);
+    }
 
-        // Get the current year
-        LocalDate currentDate = LocalDate.now();
-        int currentYear = currentDate.getYear();
+    public Map<String, Double> getTotalExpensesByMonth() {
+        return totalsByMonth(Transaction.TransactionType.EXPENSE);
+    }
 
-        // Loop through each month of the current year
-        for (int month = 1; month <= 12; month++) {
-            YearMonth yearMonth = YearMonth.of(currentYear, month);
-            LocalDate firstDayOfMonth = yearMonth.atDay(1); // First day of the month
-            LocalDate lastDayOfMonth = yearMonth.atEndOfMonth(); // Last day of the month
+    // Method to retrieve total transactions count by month for the current year
+    public Map<String, Integer> getTotalTransactionsByMonth() {
+        int currentYear = LocalDate.now().getYear();
+        if (columnarLedger.ready()) {
+            Map<String, Integer> totalTransactionsByMonth = new HashMap<>();
+            columnarLedger.countsByMonth(YearMonth.of(currentYear, 1), YearMonth.of(currentYear, 12))
+                    .forEach((month, count) -> totalTransactionsByMonth.put(month.getMonth().name(), count.intValue()));
+            return Collections.unmodifiableMap(totalTransactionsByMonth);
+        }
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.TRANSACTIONS_BY_MONTH,
+                YearMonth.of(currentYear, 1).atDay(1), YearMonth.of(currentYear, 12).atEndOfMonth());
+        return aggregateCache.get(key, () -> loadTransactionsByMonth(key));
+    }
 
-            // Calculate total incomes for the month
-            Double totalIncome = transactionRepository.countIncomesBetweenDates(firstDayOfMonth, lastDayOfMonth);
+    private Map<String, Integer> loadTransactionsByMonth(AggregateCache.Key key) {
+        Map<String, Integer> totalTransactionsByMonth = new HashMap<>();
+
+        // Months without any transactions are not returned by the grouped query, so start from zero
+        for (Month month : Month.values()) {
+            totalTransactionsByMonth.put(month.name(), 0);
+        }
 
-            // Check for null value to avoid NullPointerException
-            totalIncomesByMonth.put(yearMonth.getMonth().name(), totalIncome != null ? totalIncome : 0.0);
+        List<Object[]> rows = rollupRepository.countTransactionsByMonth(key.start(), key.end());
+        for (Object[] row : rows) {
+            Month month = Month.of(((Number) row[0]).intValue());
+            totalTransactionsByMonth.put(month.name(), ((Number) row[1]).intValue());
         }
 
-        return totalIncomesByMonth;
+        return Collections.unmodifiableMap(totalTransactionsByMonth);
     }
 
-    public Map<String, Double> getTotalExpensesByMonth() {
-        Map<String, Double> totalExpensesByMonth = new HashMap<>();
+    // All dashboard figures from a single grouped scan of the rollups, folded per day in memory
+    public DashboardSummary getDashboardSummary() {
+        LocalDate currentDate = LocalDate.now();
+        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
+        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
+        LocalDate lastDayOfYear = currentDate.with(TemporalAdjusters.lastDayOfYear());
+
+        // Early in January the current week starts in the previous year
+        LocalDate scanStart = startOfWeek.isBefore(firstDayOfYear) ? startOfWeek : firstDayOfYear;
+        if (columnarLedger.ready()) {
+            // Range lookups on the columnar ledger, no scan needed
+            return new DashboardSummary(getTotalExpenses(), getTotalIncomes(), getTotalTransactions(),
+                    getTotalExpensesByMonth(), getTotalIncomesByMonth(), getTotalTransactionsByMonth());
+        }
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.DASHBOARD_SUMMARY, scanStart, lastDayOfYear);
+        return aggregateCache.get(key, () -> loadDashboardSummary(currentDate, key));
+    }
 
-        // Get the current year
+    // The same figures straight from the rollups, past the columnar ledger and the cache: the
+    // rollups commit with the ledger version, so the read can be matched to one (see DashboardStream)
+    public DashboardSummary getDashboardSummaryFromRollups() {
         LocalDate currentDate = LocalDate.now();
-        int currentYear = currentDate.getYear();
+        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
+        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
+        LocalDate scanStart = startOfWeek.isBefore(firstDayOfYear) ? startOfWeek : firstDayOfYear;
+        return loadDashboardSummary(currentDate, new AggregateCache.Key(AggregateCache.Kind.DASHBOARD_SUMMARY,
+                scanStart, currentDate.with(TemporalAdjusters.lastDayOfYear())));
+    }
 
-        // Loop through each month of the current year
-        for (int month = 1; month <= 12; month++) {
-            YearMonth yearMonth = YearMonth.of(currentYear, month);
-            LocalDate firstDayOfMonth = yearMonth.atDay(1); // First day of the month
-            LocalDate lastDayOfMonth = yearMonth.atEndOfMonth(); // Last day of the month
+    private DashboardSummary loadDashboardSummary(LocalDate currentDate, AggregateCache.Key key) {
+        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
+        LocalDate firstDayOfMonth = currentDate.with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
 
-            // Calculate total expenses for the month
-            Double totalExpense = transactionRepository.countExpensesBetweenDates(firstDayOfMonth, lastDayOfMonth);
+        double[] expenses = new double[3];
+        double[] incomes = new double[3];
+        double[] counts = new double[3];
+        double[] expensesByMonth = new double[12];
+        double[] incomesByMonth = new double[12];
+        int[] countsByMonth = new int[12];
+
+        for (Object[] row : rollupRepository.summarizeByDay(key.start(), key.end())) {
+            LocalDate date = (LocalDate) row[0];
+            double income = ((Number) row[1]).doubleValue();
+            double expense = ((Number) row[2]).doubleValue();
+            long count = ((Number) row[3]).longValue();
+
+            if (!date.isBefore(firstDayOfYear)) {
+                int month = date.getMonthValue() - 1;
+                incomesByMonth[month] += income;
+                expensesByMonth[month] += expense;
+                countsByMonth[month] += (int) count;
+            }
+            if (date.isAfter(currentDate)) {
+                continue;
+            }
+            // Slots are weekly, monthly, yearly
+            boolean[] inPeriod = {!date.isBefore(startOfWeek), !date.isBefore(firstDayOfMonth), !date.isBefore(firstDayOfYear)};
+            for (int i = 0; i < 3; i++) {
+                if (inPeriod[i]) {
+                    incomes[i] += income;
+                    expenses[i] += expense;
+                    counts[i] += count;
+                }
+            }
+        }
 
-            // If no expenses found (null), set totalExpense to 0.0
-            totalExpensesByMonth.put(yearMonth.getMonth().name(), totalExpense != null ? totalExpense : 0.0);
+        Map<String, Integer> transactionsByMonth = new HashMap<>();
+        for (Month month : Month.values()) {
+            transactionsByMonth.put(month.name(), countsByMonth[month.ordinal()]);
         }
+        return new DashboardSummary(periodMap(expenses), periodMap(incomes), periodMap(counts),
+                monthMap(expensesByMonth), monthMap(incomesByMonth), Collections.unmodifiableMap(transactionsByMonth));
+    }
 
-        return totalExpensesByMonth;
+    private static Map<String, Double> periodMap(double[] values) {
+        Map<String, Double> map = new HashMap<>();
+        map.put("weekly", values[0]);
+        map.put("monthly", values[1]);
+        map.put("yearly", values[2]);
+        return Collections.unmodifiableMap(map);
     }
-    //
-    // Method to retrieve total transactions count by month for the current year
-    public Map<String, Integer> getTotalTransactionsByMonth() {
-        Map<String, Integer> totalTransactionsByMonth = new HashMap<>();
 
-        // Get the current year
+    private static Map<String, Double> monthMap(double[] values) {
+        Map<String, Double> map = new HashMap<>();
+        for (Month month : Month.values()) {
+            map.put(month.name(), values[month.ordinal()]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    // Sums of one transaction type for the current month, week and year, one query per period
+    private Map<String, Callable<Double>> totalsByPeriod(Transaction.TransactionType type) {
+        Map<String, Callable<Double>> totals = new LinkedHashMap<>();
+
+        // Current date
         LocalDate currentDate = LocalDate.now();
-        int currentYear = currentDate.getYear();
 
-        // Loop through each month of the current year
-        for (int month = 1; month <= 12; month++) {
-            YearMonth yearMonth = YearMonth.of(currentYear, month);
-            LocalDate firstDayOfMonth = yearMonth.atDay(1); // First day of the month
-            LocalDate lastDayOfMonth = yearMonth.atEndOfMonth(); // Last day of the month
+        // Calculate the total for the current month
+        LocalDate firstDayOfMonth = currentDate.with(TemporalAdjusters.firstDayOfMonth());
+        totals.put("monthly", () -> sumBetween(type, firstDayOfMonth, currentDate));
+
+        // Calculate the total for the current week (assuming week starts on Monday)
+        LocalDate startOfWeek = currentDate.with(DayOfWeek.MONDAY);
+        totals.put("weekly", () -> sumBetween(type, startOfWeek, currentDate));
 
-            // Calculate total transactions for the month
-            int totalTransactions = transactionRepository.countTransactionsMonth(firstDayOfMonth, lastDayOfMonth);
-            totalTransactionsByMonth.put(yearMonth.getMonth().name(), totalTransactions);
+        // Calculate the total for the current year
+        LocalDate firstDayOfYear = currentDate.with(TemporalAdjusters.firstDayOfYear());
+        totals.put("yearly", () -> sumBetween(type, firstDayOfYear, currentDate));
+
+        return totals;
+    }
+
+    private double sumBetween(Transaction.TransactionType type, LocalDate startDate, LocalDate endDate) {
+        if (ledgerCovers(startDate, endDate)) {
+            return columnarLedger.sum(type, startDate, endDate);
+        }
+        AggregateCache.Kind kind = type == Transaction.TransactionType.EXPENSE
+                ? AggregateCache.Kind.EXPENSE_TOTAL : AggregateCache.Kind.INCOME_TOTAL;
+        return aggregateCache.get(new AggregateCache.Key(kind, startDate, endDate),
+                () -> rollupRepository.sumAmountBetweenDates(type, startDate, endDate).doubleValue());
+    }
+
+    private double countBetween(LocalDate startDate, LocalDate endDate) {
+        if (ledgerCovers(startDate, endDate)) {
+            return columnarLedger.count(startDate, endDate);
         }
+        return aggregateCache.get(new AggregateCache.Key(AggregateCache.Kind.TRANSACTION_COUNT, startDate, endDate),
+                () -> (double) rollupRepository.countTransactionsBetweenDates(startDate, endDate));
+    }
+
+    // The columnar ledger is loaded from the hot table; the rollups also cover archived years
+    private boolean ledgerCovers(LocalDate startDate, LocalDate endDate) {
+        return columnarLedger.ready() && !ledgerTiers.archiveOverlaps(startDate, endDate);
+    }
 
-        return totalTransactionsByMonth;
+    // Sums of one transaction type for every month of the current year, one grouped query
+    private Map<String, Double> totalsByMonth(Transaction.TransactionType type) {
+        int currentYear = LocalDate.now().getYear();
+        if (columnarLedger.ready()) {
+            Map<String, Double> totalsByMonth = new HashMap<>();
+            columnarLedger.sumsByMonth(type, YearMonth.of(currentYear, 1), YearMonth.of(currentYear, 12))
+                    .forEach((month, total) -> totalsByMonth.put(month.getMonth().name(), total));
+            return Collections.unmodifiableMap(totalsByMonth);
+        }
+        AggregateCache.Kind kind = type == Transaction.TransactionType.EXPENSE
+                ? AggregateCache.Kind.EXPENSES_BY_MONTH : AggregateCache.Kind.INCOMES_BY_MONTH;
+        AggregateCache.Key key = new AggregateCache.Key(kind,
+                YearMonth.of(currentYear, 1).atDay(1), YearMonth.of(currentYear, 12).atEndOfMonth());
+        return aggregateCache.get(key, () -> loadTotalsByMonth(type, key));
     }
 
+    private Map<String, Double> loadTotalsByMonth(Transaction.TransactionType type, AggregateCache.Key key) {
+        Map<String, Double> totalsByMonth = new HashMap<>();
+
+        // Months without any transactions are not returned by the grouped query, so start from zero
+        for (Month month : Month.values()) {
+            totalsByMonth.put(month.name(), 0.0);
+        }
 
+        List<Object[]> rows = rollupRepository.sumAmountByMonth(type, key.start(), key.end());
+        for (Object[] row : rows) {
+            Month month = Month.of(((Number) row[0]).intValue());
+            totalsByMonth.put(month.name(), ((Number) row[1]).doubleValue());
+        }
 
+        return Collections.unmodifiableMap(totalsByMonth);
+    }
 }
@@ -0,0 +1,122 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Building blocks for the /transactions filters. matching() only adds the predicates whose
+// values are present, so every filter combination gets its own plain, index-friendly WHERE clause
+// instead of one catch-all query full of "IS NULL OR" branches.
+public final class TransactionSpecifications {
+
+    // The amount comparison chosen in the list filter form
+    public enum AmountOperator {
+        EQUAL("="),
+        AT_MOST("<="),
+        AT_LEAST(">=");
+
+        private final String symbol;
+
+        AmountOperator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        // A missing symbol is an exact match, the form's default; an unknown one is refused
+        public static AmountOperator fromSymbol(String symbol) {
+            if (symbol == null || symbol.isEmpty()) {
+                return EQUAL;
+            }
+            for (AmountOperator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            throw new IllegalArgumentException("Unknown amount filter: " + symbol);
+        }
+    }
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> matching(String description, BigDecimal amount, String amountFilter,
+                                                      LocalDate startDate, LocalDate endDate) {
+        Specification<Transaction> descriptionSpec = description != null && !description.isEmpty()
+                ? descriptionContains(description) : null;
+        return matching(descriptionSpec, amount, amountFilter, startDate, endDate);
+    }
+
+    // Same as above with the description part already resolved, or null for none
+    public static Specification<Transaction> matching(Specification<Transaction> descriptionSpec, BigDecimal amount,
+                                                      String amountFilter, LocalDate startDate, LocalDate endDate) {
+        // A null predicate means "no restriction" and disappears when combined
+        Specification<Transaction> spec = (root, query, cb) -> null;
+        if (descriptionSpec != null) {
+            spec = spec.and(descriptionSpec);
+        }
+        if (amount != null) {
+            spec = spec.and(amountMatches(AmountOperator.fromSymbol(amountFilter), amount));
+        }
+        if (startDate != null) {
+            spec = spec.and(onOrAfter(startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and(onOrBefore(endDate));
+        }
+        return spec;
+    }
+
+    public static Specification<Transaction> descriptionContains(String text) {
+        String pattern = "%" + escapeLike(text) + "%";
+        return (root, query, cb) -> cb.like(root.get("description"), pattern, LIKE_ESCAPE);
+    }
+
+    // Restricts to a known set of ids, e.g. the matches found by the description index
+    public static Specification<Transaction> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    public static Specification<Transaction> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Transaction> amountMatches(AmountOperator operator, BigDecimal amount) {
+        double value = amount.doubleValue();
+        return (root, query, cb) -> switch (operator) {
+            case EQUAL -> cb.equal(root.get("amount"), value);
+            case AT_MOST -> cb.le(root.get("amount"), value);
+            case AT_LEAST -> cb.ge(root.get("amount"), value);
+        };
+    }
+
+    public static Specification<Transaction> onOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), date);
+    }
+
+    public static Specification<Transaction> onOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), date);
+    }
+
+    // Rows after (date, id) in the newest-first list order; the plain date bound keeps it a range scan
+    static Specification<Transaction> after(LocalDate date, long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), date),
+                cb.or(cb.lessThan(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+
+    // Rows before (date, id) in the newest-first list order
+    static Specification<Transaction> before(LocalDate date, long id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("date"), date),
+                cb.or(cb.greaterThan(root.get("date"), date), cb.greaterThan(root.get("id"), id)));
+    }
+
+    // User input is matched literally, % and _ are not wildcards
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,22 @@
+-- H2 counterpart of the MySQL baseline, used by the tests and local runs: the schema as
+-- ddl-auto=update generated it, with IDENTITY ids.
+
+CREATE TABLE categories (
+    id         BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    name       VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE transactions (
+    id               BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    amount           DOUBLE PRECISION,
+    date             DATE,
+    description      VARCHAR(255),
+    transaction_type ENUM ('EXPENSE', 'INCOME'),
+    category_id      BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
@@ -0,0 +1,3 @@
+CREATE INDEX idx_transactions_type_date_amount ON transactions (transaction_type, date, amount);
+CREATE INDEX idx_transactions_date_id ON transactions (date, id);
+CREATE INDEX idx_transactions_category ON transactions (category_id);
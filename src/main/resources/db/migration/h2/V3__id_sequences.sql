@@ -0,0 +1,8 @@
+-- Same as the MySQL migration, with real sequences
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE categories_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM categories);
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE transactions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM transactions);
+
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,14 @@
+-- Same as the MySQL migration
+CREATE TABLE daily_rollups (
+    rollup_date       DATE                        NOT NULL,
+    transaction_type  ENUM ('EXPENSE', 'INCOME')  NOT NULL,
+    category_id       BIGINT                      NOT NULL,
+    total_amount      DECIMAL(19, 2)              NOT NULL,
+    transaction_count BIGINT                      NOT NULL,
+    PRIMARY KEY (category_id, rollup_date, transaction_type)
+);
+
+INSERT INTO daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count)
+SELECT date, transaction_type, category_id, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY date, transaction_type, category_id;
@@ -0,0 +1,2 @@
+-- Same as the MySQL migration
+CREATE INDEX idx_daily_rollups_date ON daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count);
@@ -0,0 +1,9 @@
+-- Same as the MySQL migration
+CREATE TABLE ingestion_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    transaction_id  BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_ingestion_keys_created_at ON ingestion_keys (created_at);
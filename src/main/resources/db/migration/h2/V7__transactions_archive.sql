@@ -0,0 +1,22 @@
+-- Same as the MySQL migration, without the compressed row format
+CREATE TABLE transactions_archive (
+    id               BIGINT       NOT NULL,
+    amount           DOUBLE PRECISION,
+    date             DATE,
+    description      VARCHAR(255),
+    transaction_type ENUM ('EXPENSE', 'INCOME'),
+    category_id      BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_archive_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE INDEX idx_transactions_archive_date_id ON transactions_archive (date, id);
+CREATE INDEX idx_transactions_archive_category ON transactions_archive (category_id);
+
+CREATE TABLE archived_years (
+    ledger_year INT          NOT NULL,
+    state       VARCHAR(16)  NOT NULL,
+    row_count   BIGINT       NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (ledger_year)
+);
@@ -0,0 +1,19 @@
+-- Same as the MySQL migration
+ALTER TABLE categories ADD COLUMN monthly_budget DECIMAL(19, 2) NULL;
+
+CREATE TABLE monthly_category_expenses (
+    category_id       BIGINT         NOT NULL,
+    ledger_year       INT            NOT NULL,
+    ledger_month      INT            NOT NULL,
+    total_amount      DECIMAL(19, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    PRIMARY KEY (category_id, ledger_year, ledger_month)
+);
+
+CREATE INDEX idx_monthly_category_expenses_month ON monthly_category_expenses (ledger_year, ledger_month);
+
+INSERT INTO monthly_category_expenses (category_id, ledger_year, ledger_month, total_amount, transaction_count)
+SELECT category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date), SUM(total_amount), SUM(transaction_count)
+FROM daily_rollups
+WHERE transaction_type = 'EXPENSE'
+GROUP BY category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date);
@@ -0,0 +1,10 @@
+-- Same as the MySQL migration
+CREATE TABLE ledger_version (
+    id         INT    NOT NULL,
+    version    BIGINT NOT NULL,
+    changed_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO ledger_version (id, version, changed_at)
+VALUES (1, CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT), CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT));
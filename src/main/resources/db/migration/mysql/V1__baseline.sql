@@ -0,0 +1,23 @@
+-- Schema as previously generated by ddl-auto=update (ids were IDENTITY columns). Existing
+-- databases are baselined at this version (spring.flyway.baseline-on-migrate) and run every
+-- later migration; their constraint names are Hibernate's generated ones, nothing refers to them.
+
+CREATE TABLE categories (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE transactions (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    amount           DOUBLE,
+    date             DATE,
+    description      VARCHAR(255),
+    transaction_type ENUM ('EXPENSE', 'INCOME'),
+    category_id      BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- Date-range aggregates filter on type + date and read only the amount: answered from the index alone
+CREATE INDEX idx_transactions_type_date_amount ON transactions (transaction_type, date, amount);
+
+-- Newest-first listing, keyset pagination and the export stream all order by (date, id)
+CREATE INDEX idx_transactions_date_id ON transactions (date, id);
+
+-- Category joins and filters; also replaces the index MySQL created implicitly for the foreign key
+CREATE INDEX idx_transactions_category ON transactions (category_id);
@@ -0,0 +1,19 @@
+-- Ids come from pooled sequences (50 per allocation), which lets Hibernate batch inserts.
+-- MySQL has no sequences: Hibernate emulates them with one-row tables. They start past the
+-- existing ids (plus one allocation block) so new ids never collide.
+CREATE TABLE categories_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO categories_seq SELECT COALESCE(MAX(id), 0) + 51 FROM categories;
+
+CREATE TABLE transactions_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO transactions_seq SELECT COALESCE(MAX(id), 0) + 51 FROM transactions;
+
+-- The ids are assigned by the application from now on. categories.id is referenced by the
+-- transactions foreign key, which MySQL only lets the column change with the checks off.
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE categories MODIFY id BIGINT NOT NULL;
+ALTER TABLE transactions MODIFY id BIGINT NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,15 @@
+-- Per day, type and category totals maintained by RollupService; the dashboard aggregates read
+-- these instead of the raw rows. Filled from the existing transactions.
+CREATE TABLE daily_rollups (
+    rollup_date       DATE                        NOT NULL,
+    transaction_type  ENUM ('EXPENSE', 'INCOME')  NOT NULL,
+    category_id       BIGINT                      NOT NULL,
+    total_amount      DECIMAL(19, 2)              NOT NULL,
+    transaction_count BIGINT                      NOT NULL,
+    PRIMARY KEY (category_id, rollup_date, transaction_type)
+) ENGINE = InnoDB;
+
+INSERT INTO daily_rollups (rollup_date, transaction_type, category_id, total_amount, transaction_count)
+SELECT date, transaction_type, category_id, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY date, transaction_type, category_id;
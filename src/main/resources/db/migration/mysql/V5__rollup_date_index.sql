@@ -0,0 +1,4 @@
+-- Date-range scans of the rollups (dashboard aggregates, category reports). The primary key leads
+-- with category_id, so without this index every range query reads the whole table.
+-- InnoDB adds the primary key columns, which makes the index covering.
+CREATE INDEX idx_daily_rollups_date ON daily_rollups (rollup_date, transaction_type, total_amount, transaction_count);
@@ -0,0 +1,10 @@
+-- Client idempotency keys of the ingestion API (/transactions/ingest), written in the same
+-- transaction as the row they created. No foreign key: a retry must stay a duplicate even after
+-- the transaction has been deleted. Keys older than the retention period are purged.
+CREATE TABLE ingestion_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    transaction_id  BIGINT       NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    KEY idx_ingestion_keys_created_at (created_at)
+) ENGINE = InnoDB;
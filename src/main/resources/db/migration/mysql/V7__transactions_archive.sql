@@ -0,0 +1,25 @@
+-- Cold tier: closed years moved out of the transactions table by LedgerTierService.
+-- Same columns and ids; compressed, since archived rows are read rarely and never updated.
+CREATE TABLE transactions_archive (
+    id               BIGINT       NOT NULL,
+    amount           DOUBLE,
+    date             DATE,
+    description      VARCHAR(255),
+    transaction_type ENUM ('EXPENSE', 'INCOME'),
+    category_id      BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_archive_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
+
+-- Same access paths as the hot table: date windows, newest-first order, category joins
+CREATE INDEX idx_transactions_archive_date_id ON transactions_archive (date, id);
+CREATE INDEX idx_transactions_archive_category ON transactions_archive (category_id);
+
+-- Years that have rows in the archive, or are being moved in or out of it
+CREATE TABLE archived_years (
+    ledger_year INT          NOT NULL,
+    state       VARCHAR(16)  NOT NULL,
+    row_count   BIGINT       NOT NULL,
+    updated_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (ledger_year)
+) ENGINE = InnoDB;
@@ -0,0 +1,20 @@
+-- Optional monthly budget per category, and running month-to-date expense totals per category
+-- kept by RollupService next to the daily rollups, so a budget is checked with one key lookup.
+ALTER TABLE categories ADD COLUMN monthly_budget DECIMAL(19, 2) NULL;
+
+CREATE TABLE monthly_category_expenses (
+    category_id       BIGINT         NOT NULL,
+    ledger_year       INT            NOT NULL,
+    ledger_month      INT            NOT NULL,
+    total_amount      DECIMAL(19, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    PRIMARY KEY (category_id, ledger_year, ledger_month),
+    KEY idx_monthly_category_expenses_month (ledger_year, ledger_month)
+) ENGINE = InnoDB;
+
+-- Existing data: the month totals are sums of the daily rollups
+INSERT INTO monthly_category_expenses (category_id, ledger_year, ledger_month, total_amount, transaction_count)
+SELECT category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date), SUM(total_amount), SUM(transaction_count)
+FROM daily_rollups
+WHERE transaction_type = 'EXPENSE'
+GROUP BY category_id, EXTRACT(YEAR FROM rollup_date), EXTRACT(MONTH FROM rollup_date);
@@ -0,0 +1,11 @@
+-- Version of the ledger shared by every instance (see LedgerVersion): one row, bumped by each
+-- write just before it commits. Starts at the clock, so a rebuilt database does not reuse versions.
+CREATE TABLE ledger_version (
+    id         INT    NOT NULL,
+    version    BIGINT NOT NULL,
+    changed_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO ledger_version (id, version, changed_at)
+VALUES (1, CAST(UNIX_TIMESTAMP(NOW(3)) * 1000 AS UNSIGNED), CAST(UNIX_TIMESTAMP(NOW(3)) * 1000 AS UNSIGNED));
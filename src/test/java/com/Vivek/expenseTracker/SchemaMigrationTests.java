@@ -0,0 +1,79 @@
+package com.Vivek.expenseTracker;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.services.CategoryRepository;
+import com.Vivek.expenseTracker.services.RollupService;
+import com.Vivek.expenseTracker.services.TransactionService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Upgrade of a database created before the migrations existed: the schema ddl-auto=update built
+// from the original entities (IDENTITY ids, no rollups, no sequences), baselined at V1 like
+// production does it, then migrated and opened by the application with ddl-auto=validate.
+class SchemaMigrationTests {
+
+    private static final String URL = "jdbc:h2:mem:pre_series_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void preSeriesDatabaseMigratesToTheLatestVersion() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT GENERATED BY DEFAULT AS IDENTITY, created_at TIMESTAMP(6), "
+                + "name VARCHAR(255) UNIQUE, updated_at TIMESTAMP(6), PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE transactions (amount FLOAT(53), date DATE, category_id BIGINT NOT NULL, "
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, description VARCHAR(255), "
+                + "transaction_type ENUM ('EXPENSE','INCOME'), PRIMARY KEY (id))");
+        jdbcTemplate.execute("ALTER TABLE transactions ADD CONSTRAINT FKsqqi7sneo04kast0o2rf7ueh "
+                + "FOREIGN KEY (category_id) REFERENCES categories (id)");
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('Food'), ('Salary')");
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, description, transaction_type) VALUES "
+                + "(12.5, DATE '2024-03-01', 1, 'Lunch', 'EXPENSE'), (7.5, DATE '2024-03-01', 1, 'Coffee', 'EXPENSE'), "
+                + "(3000, DATE '2024-03-25', 2, 'Pay', 'INCOME')");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        MigrateResult result = flyway.migrate();
+
+        // V1 is the existing schema; everything after it runs
+        assertThat(result.migrations).extracting(migration -> migration.version).first().isEqualTo("2");
+        assertThat(flyway.info().pending()).isEmpty();
+        // The existing rows are in the rollups and the month totals
+        assertThat(jdbcTemplate.queryForObject("SELECT total_amount FROM daily_rollups WHERE rollup_date = DATE '2024-03-01'",
+                Double.class)).isEqualTo(20.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT total_amount FROM monthly_category_expenses WHERE category_id = 1",
+                Double.class)).isEqualTo(20.0);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + URL, "--expense-tracker.search-index.enabled=false")) {
+            // New ids come from the sequences, past the ones the IDENTITY columns handed out
+            Category category = context.getBean(CategoryRepository.class).save(new Category("Rent"));
+            assertThat(category.getId()).isGreaterThan(2);
+
+            Transaction transaction = new Transaction();
+            transaction.setAmount(900.0);
+            transaction.setDate(LocalDate.of(2024, 3, 2));
+            transaction.setDescription("March rent");
+            transaction.setTransactionType(Transaction.TransactionType.EXPENSE);
+            transaction.setCategory(category);
+            assertThat(context.getBean(TransactionService.class).save(transaction).getId()).isGreaterThan(3);
+
+            assertThat(context.getBean(RollupService.class).verify()).isEmpty();
+        }
+    }
+}
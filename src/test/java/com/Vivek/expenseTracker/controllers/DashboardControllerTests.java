@@ -0,0 +1,204 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.services.AggregateCache;
+import com.Vivek.expenseTracker.services.CategoryRepository;
+import com.Vivek.expenseTracker.services.DailyRollupRepository;
+import com.Vivek.expenseTracker.services.LedgerVersion;
+import com.Vivek.expenseTracker.services.TransactionRepository;
+import com.Vivek.expenseTracker.services.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private AggregateCache aggregateCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LedgerVersion ledgerVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        aggregateCache.clear();
+        Category category = categoryRepository.save(new Category("Groceries"));
+
+        LocalDate today = LocalDate.now();
+        transactionService.save(transaction(40.0, today, Transaction.TransactionType.EXPENSE, category));
+        transactionService.save(transaction(60.0, today, Transaction.TransactionType.EXPENSE, category));
+        transactionService.save(transaction(500.0, today, Transaction.TransactionType.INCOME, category));
+    }
+
+    @Test
+    void summaryIsServedByASingleStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String month = LocalDate.now().getMonth().name();
+        mockMvc.perform(get("/dashboard/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenses.yearly").value(100.0))
+                .andExpect(jsonPath("$.expenses.weekly").value(100.0))
+                .andExpect(jsonPath("$.incomes.monthly").value(500.0))
+                .andExpect(jsonPath("$.transactions.yearly").value(3.0))
+                .andExpect(jsonPath("$.expensesByMonth." + month).value(100.0))
+                .andExpect(jsonPath("$.transactionsByMonth." + month).value(3));
+
+        // The six separate endpoints used to cost 45 statements per page view
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void periodTotalsAreComputedConcurrentlyOffTheRequestThread() throws Exception {
+        MvcResult expenses = mockMvc.perform(get("/total-expenses"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(expenses))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weekly").value(100.0))
+                .andExpect(jsonPath("$.monthly").value(100.0))
+                .andExpect(jsonPath("$.yearly").value(100.0));
+
+        MvcResult counts = mockMvc.perform(get("/total-transactions")).andReturn();
+        mockMvc.perform(asyncDispatch(counts))
+                .andExpect(jsonPath("$.yearly").value(3.0));
+    }
+
+    @Test
+    void categoryReportRanksCategoriesAndCollapsesTheRest() throws Exception {
+        LocalDate today = LocalDate.now();
+        transactionService.save(transaction(800.0, today, Transaction.TransactionType.EXPENSE, categoryRepository.save(new Category("Rent"))));
+        transactionService.save(transaction(5.0, today, Transaction.TransactionType.EXPENSE, categoryRepository.save(new Category("Fun"))));
+        int month = today.getMonthValue() - 1;
+
+        mockMvc.perform(get("/reports/categories").param("granularity", "month").param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periods.length()").value(12))
+                .andExpect(jsonPath("$.periods[0]").value(today.getYear() + "-01"))
+                .andExpect(jsonPath("$.totalCategories").value(1))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Rent"))
+                .andExpect(jsonPath("$.categories[0].expensesByPeriod[" + month + "]").value(800.0))
+                .andExpect(jsonPath("$.other.expenses").value(105.0))
+                .andExpect(jsonPath("$.other.incomes").value(500.0))
+                .andExpect(jsonPath("$.total.transactions").value(5));
+
+        mockMvc.perform(get("/reports/categories").param("granularity", "day")
+                        .param("startDate", today.toString()).param("endDate", today.toString()).param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periods[0]").value(today.toString()))
+                .andExpect(jsonPath("$.totalCategories").value(3))
+                .andExpect(jsonPath("$.categories.length()").value(1))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Fun"));
+
+        mockMvc.perform(get("/reports/categories").param("granularity", "fortnight"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void runningBalanceOpensWithTheEarlierDays() throws Exception {
+        LocalDate today = LocalDate.now();
+        transactionService.save(transaction(25.0, today.minusDays(3), Transaction.TransactionType.INCOME,
+                categoryRepository.findAll().get(0)));
+
+        mockMvc.perform(get("/reports/balance").param("startDate", today.minusDays(1).toString())
+                        .param("endDate", today.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balances.length()").value(2))
+                .andExpect(jsonPath("$.balances[0]").value(25.0))
+                .andExpect(jsonPath("$.balances[1]").value(425.0));
+
+        mockMvc.perform(get("/reports/balance").param("startDate", today.toString())
+                        .param("endDate", today.minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unchangedLedgerIsAnsweredWith304WithoutQueries() throws Exception {
+        String etag = mockMvc.perform(get("/dashboard/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/dashboard/summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/total-expenses").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Any write moves the version on
+        transactionService.save(transaction(1.0, LocalDate.now(), Transaction.TransactionType.EXPENSE,
+                categoryRepository.findAll().get(0)));
+        mockMvc.perform(get("/dashboard/summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenses.yearly").value(101.0));
+    }
+
+    @Test
+    void writesOfAnotherInstanceMoveTheVersionOn() throws Exception {
+        // Writes bump the shared row
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM ledger_version", Long.class))
+                .isEqualTo(ledgerVersion.current());
+        String etag = mockMvc.perform(get("/dashboard/summary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Another instance commits a write
+        jdbcTemplate.update("UPDATE ledger_version SET version = version + 1, changed_at = ?", System.currentTimeMillis());
+        ledgerVersion.refresh();
+
+        mockMvc.perform(get("/dashboard/summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,67 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.services.AggregateCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Threshold 0 makes every request "slow", so the statement log can be checked too
+@SpringBootTest(properties = "expense-tracker.metrics.slow-request-threshold=0ms")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class RequestMetricsFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AggregateCache aggregateCache;
+
+    @Test
+    void endpointsExportLatencyAndSqlMetricsAndLogSlowRequests(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/transactions")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("http_server_requests_sql_statements_count\\{[^}]*uri=\"/transactions\"[^}]*} 1")
+                .contains("http_server_requests_sql_time_seconds_bucket{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{");
+
+        assertThat(output).contains("Slow request GET /transactions took")
+                .containsPattern("ms  select .* from transactions");
+    }
+
+    @Test
+    void asyncEndpointsAreRecordedWhenTheyComplete(CapturedOutput output) throws Exception {
+        aggregateCache.clear();
+        MvcResult started = mockMvc.perform(get("/total-expenses"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // The fanned-out period queries count towards the request
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .containsPattern("http_server_requests_sql_statements_count\\{[^}]*uri=\"/total-expenses\"[^}]*} 1")
+                .containsPattern("http_server_requests_sql_statements_sum\\{[^}]*uri=\"/total-expenses\"[^}]*} [1-9]");
+        assertThat(output).containsPattern("Slow request GET /total-expenses took \\d+ ms: [1-9]\\d* statements");
+    }
+}
@@ -0,0 +1,104 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.services.CategoryRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs in the "low-memory" surefire execution (-Xmx96m): the seeded rows would not fit on the heap
+// as objects, so the export only passes if it really streams. The database lives on disk for the same reason.
+@Tag("low-memory")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192",
+        "expense-tracker.search-index.enabled=false",
+        "spring.flyway.clean-disabled=false"
+})
+class TransactionExportLowMemoryTests {
+
+    private static final int ROWS = 600_000;
+
+    // The database file outlives the test run, so start from an empty schema every time
+    @TestConfiguration
+    static class FreshSchema {
+
+        @Bean
+        FlywayMigrationStrategy cleanThenMigrate() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void exportsMoreRowsThanFitOnTheHeap() throws Exception {
+        Category category = categoryRepository.save(new Category("Bulk"));
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        // Seeded in date order, which keeps the (date, id) index appends sequential
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            batch.add(new Object[]{(long) i, 1.0 + i % 1000, Date.valueOf(start.plusDays(i / 300)),
+                    "bulk export row number " + i + " with some padding text", "EXPENSE", category.getId()});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transactions/export?format=csv")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        long lines = 0;
+        String first = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lines == 1) {
+                    first = line;
+                }
+                lines++;
+            }
+        }
+        assertThat(lines).isEqualTo(ROWS + 1); // header plus every row
+        assertThat(first).endsWith(",EXPENSE,Bulk");
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, amount, date, description, transaction_type, category_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,204 @@
+package com.Vivek.expenseTracker.controllers;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.CursorPage;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import com.Vivek.expenseTracker.services.CategoryRepository;
+import com.Vivek.expenseTracker.services.DailyRollupRepository;
+import com.Vivek.expenseTracker.services.TransactionRepository;
+import com.Vivek.expenseTracker.services.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        Category category = categoryRepository.save(new Category("Misc"));
+
+        // 25 rows over 5 days, so several rows share a date and the id breaks the tie
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        for (int i = 0; i < 25; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAmount(10.0 + i);
+            transaction.setDate(start.plusDays(i % 5));
+            transaction.setDescription("row " + i);
+            transaction.setTransactionType(Transaction.TransactionType.EXPENSE);
+            transaction.setCategory(category);
+            transactionService.save(transaction);
+        }
+    }
+
+    @Test
+    void cursorPagesWalkTheWholeListInBothDirections() {
+        List<Long> forward = new ArrayList<>();
+        List<String> nextCursors = new ArrayList<>();
+        CursorPage<TransactionView> page = transactionService.findTransactionsByCursor(null, null, null, null, null, null, 10, true);
+        assertThat(page.totalElements()).isEqualTo(25);
+        assertThat(page.hasPrevious()).isFalse();
+        while (true) {
+            page.content().forEach(t -> forward.add(t.id()));
+            if (!page.hasNext()) {
+                break;
+            }
+            nextCursors.add(page.nextCursor());
+            page = transactionService.findTransactionsByCursor(null, null, null, null, null, page.nextCursor(), 10, false);
+            // The count travels inside the cursor instead of being recomputed
+            assertThat(page.totalElements()).isEqualTo(25);
+        }
+
+        assertThat(forward).hasSize(25).doesNotHaveDuplicates();
+        List<Transaction> expectedOrder = new ArrayList<>(transactionRepository.findAll());
+        expectedOrder.sort((a, b) -> a.getDate().equals(b.getDate())
+                ? b.getId().compareTo(a.getId()) : b.getDate().compareTo(a.getDate()));
+        assertThat(forward).isEqualTo(expectedOrder.stream().map(Transaction::getId).toList());
+
+        // From the last page, "previous" returns exactly the second page
+        CursorPage<TransactionView> previous = transactionService.findTransactionsByCursor(null, null, null, null, null,
+                page.previousCursor(), 10, false);
+        assertThat(previous.content()).extracting(TransactionView::id).isEqualTo(forward.subList(10, 20));
+        assertThat(previous.hasPrevious()).isTrue();
+        assertThat(previous.hasNext()).isTrue();
+    }
+
+    @Test
+    void listRendersInBothPaginationModes() throws Exception {
+        mockMvc.perform(get("/transactions").param("page", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/transactions").param("mode", "seek").param("withTotal", "true"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/transactions").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions").param("mode", "seek").param("size", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions").param("mode", "seek").param("size", "1000001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions").param("amount", "30").param("amountFilter", "<>"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportWritesFilteredRowsNewestFirst() throws Exception {
+        MvcResult csv = mockMvc.perform(get("/transactions/export").param("amount", "30").param("amountFilter", ">="))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertThat(lines[0]).isEqualTo("id,date,description,amount,type,category");
+        assertThat(lines).hasSize(6); // rows 20..24
+        assertThat(lines[1]).contains(",2026-03-05,row 24,34.0,EXPENSE,Misc");
+
+        MvcResult ndjson = mockMvc.perform(get("/transactions/export").param("format", "ndjson").param("description", "row 1"))
+                .andReturn();
+        String json = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // "row 1" and "row 10".."row 19"
+        assertThat(json.lines().filter(line -> !line.isBlank())).hasSize(11)
+                .allMatch(line -> line.contains("\"categoryName\":\"Misc\""));
+
+        mockMvc.perform(get("/transactions/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/export").param("amount", "30").param("amountFilter", "=>"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void renderingAPageOfHundredRowsTakesAFixedNumberOfStatements() throws Exception {
+        // 100 more rows spread over 20 categories, so per-row or per-category loading would show
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            categories.add(categoryRepository.save(new Category("Category " + i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAmount(1.0 + i);
+            transaction.setDate(LocalDate.of(2026, 4, 1).plusDays(i % 10));
+            transaction.setDescription("page row " + i);
+            transaction.setTransactionType(Transaction.TransactionType.INCOME);
+            transaction.setCategory(categories.get(i % 20));
+            transactionService.save(transaction);
+        }
+        Long anyId = transactionRepository.findAll().get(0).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/transactions").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("transactions"));
+        // The joined page select and its count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        statistics.clear();
+        mockMvc.perform(get("/transactions/view/" + anyId))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void ingestAcknowledgesEachEntry() throws Exception {
+        String key = "ingest-" + System.nanoTime();
+        mockMvc.perform(post("/transactions/ingest").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"key\":\"" + key + "\",\"date\":\"2026-03-02\",\"description\":\"Feed\","
+                                + "\"amount\":12.5,\"type\":\"expense\",\"category\":\"misc\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$[0].key").value(key))
+                .andExpect(jsonPath("$[0].status").value("QUEUED"));
+        mockMvc.perform(post("/transactions/ingest").contentType(MediaType.APPLICATION_JSON).content("[1, 2]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/ingest/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,135 @@
+package com.Vivek.expenseTracker.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateCacheTests {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2026, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2026, 2, 1);
+    private static final LocalDate FEB_28 = LocalDate.of(2026, 2, 28);
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final MutableClock clock = new MutableClock(JAN_31);
+
+    @Test
+    void writesEvictOnlyTheWindowsContainingTheirDates() {
+        AggregateCache cache = new AggregateCache(10, TTL, clock);
+        AtomicInteger loads = new AtomicInteger();
+        AggregateCache.Key january = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, JAN_1, JAN_31);
+        AggregateCache.Key february = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, FEB_1, FEB_28);
+
+        cache.get(january, loads::incrementAndGet);
+        cache.get(february, loads::incrementAndGet);
+        cache.evictCovering(List.of(LocalDate.of(2026, 2, 14)));
+        cache.get(january, loads::incrementAndGet);
+        cache.get(february, loads::incrementAndGet);
+
+        assertThat(loads.get()).isEqualTo(3);
+        AggregateCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(3);
+        assertThat(stats.invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        AggregateCache cache = new AggregateCache(2, TTL, clock);
+        AggregateCache.Key a = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, JAN_1, JAN_31);
+        AggregateCache.Key b = new AggregateCache.Key(AggregateCache.Kind.INCOME_TOTAL, JAN_1, JAN_31);
+        AggregateCache.Key c = new AggregateCache.Key(AggregateCache.Kind.TRANSACTION_COUNT, JAN_1, JAN_31);
+
+        cache.get(a, () -> 1.0);
+        cache.get(b, () -> 2.0);
+        cache.get(a, () -> 1.0);
+        cache.get(c, () -> 3.0);
+
+        // b was the least recently used, a survives
+        assertThat(cache.get(a, () -> -1.0)).isEqualTo(1.0);
+        assertThat(cache.get(b, () -> -2.0)).isEqualTo(-2.0);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void dayRolloverDropsEverything() {
+        AggregateCache cache = new AggregateCache(10, TTL, clock);
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.DASHBOARD_SUMMARY, JAN_1, JAN_31);
+        cache.get(key, () -> "old");
+
+        clock.today = FEB_1;
+
+        assertThat(cache.get(key, () -> "new")).isEqualTo("new");
+        assertThat(cache.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        AggregateCache cache = new AggregateCache(10, TTL, clock);
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, JAN_1, JAN_31);
+        cache.get(key, () -> "old");
+
+        clock.elapsed = TTL.minusSeconds(1);
+        assertThat(cache.get(key, () -> "new")).isEqualTo("old");
+        clock.elapsed = TTL;
+        assertThat(cache.get(key, () -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void writesOfAnotherInstanceDropEverything() {
+        AggregateCache cache = new AggregateCache(10, TTL, clock);
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, JAN_1, JAN_31);
+        cache.get(key, () -> "old");
+
+        cache.onRemoteLedgerChanged(new RemoteLedgerChangedEvent(2));
+
+        assertThat(cache.get(key, () -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void valueComputedAcrossAWriteIsNotStored() {
+        AggregateCache cache = new AggregateCache(10, TTL, clock);
+        AggregateCache.Key key = new AggregateCache.Key(AggregateCache.Kind.EXPENSE_TOTAL, JAN_1, JAN_31);
+
+        cache.get(key, () -> {
+            cache.evictCovering(List.of(JAN_1));
+            return "stale";
+        });
+
+        assertThat(cache.get(key, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    private static final class MutableClock extends Clock {
+        private LocalDate today;
+        private Duration elapsed = Duration.ZERO;
+
+        MutableClock(LocalDate today) {
+            this.today = today;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return today.atStartOfDay(ZoneOffset.UTC).toInstant().plus(elapsed);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.Vivek.expenseTracker.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AggregateFanOutTests {
+
+    private final AggregateFanOut fanOut = new AggregateFanOut(new SqlStatementRecorder(10), 2, Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        fanOut.destroy();
+    }
+
+    @Test
+    void tasksRunConcurrentlyUpToTheLimitAndKeepTheirOrder() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Map<String, Callable<Integer>> tasks = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            int value = i;
+            tasks.put("task" + i, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                running.decrementAndGet();
+                return value;
+            });
+        }
+
+        long started = System.nanoTime();
+        Map<String, Integer> results = fanOut.invokeAll(tasks);
+
+        assertThat(results).containsExactly(Map.entry("task0", 0), Map.entry("task1", 1), Map.entry("task2", 2),
+                Map.entry("task3", 3), Map.entry("task4", 4), Map.entry("task5", 5));
+        assertThat(peak.get()).isEqualTo(2);
+        // Three rounds of two, not six sequential sleeps
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(290));
+    }
+
+    @Test
+    void cancellingOrTimingOutInterruptsRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Map<String, Callable<Integer>> tasks = Map.of("slow", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return 1;
+        });
+
+        CompletableFuture<Map<String, Integer>> cancelled = fanOut.submitAll(tasks);
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        cancelled.cancel(true);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch timedOut = new CountDownLatch(1);
+        CompletableFuture<Map<String, Integer>> slow = fanOut.submitAll(Map.of("slow", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                timedOut.countDown();
+                throw e;
+            }
+            return 1;
+        }));
+        assertThatThrownBy(slow::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(timedOut.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.BudgetAlert;
+import com.Vivek.expenseTracker.models.BudgetUtilization;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.expense;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BudgetServiceTests {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        food = categoryRepository.save(new Category("Food"));
+        rent = categoryRepository.save(new Category("Rent"));
+        categoryService.setMonthlyBudget(food.getId(), new BigDecimal("100.00"));
+    }
+
+    @Test
+    void onlyTheWriteThatCrossesTheBudgetAlerts() {
+        transactionService.save(expense(60.0, LocalDate.now(), food));
+        assertThat(alertsFor(food)).isZero();
+
+        Transaction crossing = transactionService.save(expense(50.0, LocalDate.now(), food));
+        transactionService.save(expense(5.0, LocalDate.now(), food));
+        assertThat(alertsFor(food)).isEqualTo(1);
+        assertThat(utilizationOf(food).spent()).isEqualByComparingTo("115.00");
+        assertThat(utilizationOf(food).overBudget()).isTrue();
+
+        // Moving a row to another category, or to last month, takes it off this month's total
+        transactionService.update(crossing.getId(), expense(50.0, LocalDate.now(), rent));
+        BudgetUtilization food = utilizationOf(this.food);
+        assertThat(food.spent()).isEqualByComparingTo("65.00");
+        assertThat(food.remaining()).isEqualByComparingTo("35.00");
+        assertThat(food.percentUsed()).isEqualTo(65.0);
+        assertThat(food.overBudget()).isFalse();
+        assertThat(utilizationOf(rent).monthlyBudget()).isNull();
+        assertThat(utilizationOf(rent).spent()).isEqualByComparingTo("50.00");
+
+        transactionService.update(crossing.getId(), expense(50.0, LocalDate.now().minusMonths(1), rent));
+        assertThat(utilizationOf(rent).spent()).isEqualByComparingTo("0");
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    private long alertsFor(Category category) {
+        return budgetService.recentAlerts().stream()
+                .map(BudgetAlert::categoryId)
+                .filter(category.getId()::equals)
+                .count();
+    }
+
+    private BudgetUtilization utilizationOf(Category category) {
+        return budgetService.utilization(YearMonth.now()).stream()
+                .filter(utilization -> utilization.categoryId().equals(category.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
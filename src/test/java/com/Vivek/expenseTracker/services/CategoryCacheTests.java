@@ -0,0 +1,91 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CategoryCacheTests {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LedgerVersion ledgerVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        categoryService.save(new Category("Groceries"));
+        categoryService.save(new Category("Rent"));
+        categoryService.save(new Category("Gross income"));
+    }
+
+    @Test
+    void writesThroughTheServiceSwapTheSnapshotAndReadsIssueNoQueries() {
+        Category rent = categoryCache.findByName("  RENT ").orElseThrow();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<Category> page = categoryService.getCategories("gro", PageRequest.of(0, 10));
+        assertThat(page.getContent()).extracting(Category::getName).containsExactly("Groceries", "Gross income");
+        assertThat(categoryService.getAllCategories()).hasSize(3);
+        assertThat(categoryCache.findById(rent.getId())).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        categoryService.deleteById(rent.getId());
+        assertThat(categoryCache.findByName("rent")).isEmpty();
+        assertThat(categoryService.getCategories(null, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void idsWrittenBehindTheCacheAreReadThrough() {
+        Category direct = categoryRepository.save(new Category("Travel"));
+
+        assertThat(categoryCache.findById(direct.getId())).map(Category::getName).contains("Travel");
+        assertThat(categoryCache.findByName("travel")).isPresent();
+    }
+
+    @Test
+    void writesOfAnotherInstanceDropTheSnapshot() {
+        Category rent = categoryCache.findByName("rent").orElseThrow();
+
+        // Another instance renames a category and bumps the shared version
+        jdbcTemplate.update("UPDATE categories SET name = 'Housing' WHERE id = ?", rent.getId());
+        jdbcTemplate.update("UPDATE ledger_version SET version = version + 1, changed_at = ?", System.currentTimeMillis());
+        ledgerVersion.refresh();
+
+        assertThat(categoryCache.findById(rent.getId())).map(Category::getName).contains("Housing");
+        assertThat(categoryCache.findByName("rent")).isEmpty();
+    }
+}
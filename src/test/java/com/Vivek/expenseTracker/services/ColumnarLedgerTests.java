@@ -0,0 +1,151 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.CategoryReport;
+import com.Vivek.expenseTracker.models.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A low compaction threshold so the tests also run through background compactions
+@SpringBootTest(properties = {
+        "expense-tracker.analytics.enabled=true",
+        "expense-tracker.analytics.compact-threshold=3"
+})
+class ColumnarLedgerTests {
+
+    private static final LocalDate JAN_10 = LocalDate.of(2025, 1, 10);
+    private static final LocalDate FEB_03 = LocalDate.of(2025, 2, 3);
+    private static final LocalDate MAR_20 = LocalDate.of(2025, 3, 20);
+
+    @Autowired
+    private ColumnarLedger ledger;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private CategoryReportService reportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        food = categoryRepository.save(new Category("Food"));
+        rent = categoryRepository.save(new Category("Rent"));
+
+        // Ten amounts of 0.1 add up to 0.9999999999999999 as doubles
+        for (int i = 0; i < 10; i++) {
+            transactionService.save(transaction(0.1, JAN_10, Transaction.TransactionType.EXPENSE, food));
+        }
+        transactionService.save(transaction(800.00, FEB_03, Transaction.TransactionType.EXPENSE, rent));
+        transactionService.save(transaction(2500.00, JAN_10, Transaction.TransactionType.INCOME, rent));
+        ledger.load();
+    }
+
+    @Test
+    void rangeSumsAndCountsAreExactCents() {
+        assertThat(ledger.sum(Transaction.TransactionType.EXPENSE, JAN_10, JAN_10)).isEqualTo(1.0);
+        assertThat(ledger.sum(Transaction.TransactionType.EXPENSE, JAN_10.minusYears(1), MAR_20)).isEqualTo(801.0);
+        assertThat(ledger.sum(Transaction.TransactionType.INCOME, FEB_03, MAR_20)).isZero();
+        assertThat(ledger.count(JAN_10, FEB_03)).isEqualTo(12);
+        assertThat(ledger.count(FEB_03.plusDays(1), MAR_20)).isZero();
+    }
+
+    @Test
+    void followsInsertsEditsAndDeletesBeforeAndAfterCompaction() {
+        Transaction groceries = transactionService.save(transaction(45.67, MAR_20, Transaction.TransactionType.EXPENSE, food));
+        Transaction bonus = transactionService.save(transaction(300.00, MAR_20, Transaction.TransactionType.INCOME, rent));
+        transactionService.update(groceries.getId(), transaction(50.00, FEB_03, Transaction.TransactionType.EXPENSE, food));
+        transactionService.deleteById(bonus.getId());
+        // Deleting a row the load read, rather than one written since
+        transactionService.deleteById(transactionRepository.findAll().stream()
+                .filter(t -> t.getAmount() == 800.00).findFirst().orElseThrow().getId());
+
+        assertMatchesRollups();
+        ledger.compact();
+        assertThat(ledger.stats().pending()).isZero();
+        assertThat(ledger.stats().unmatchedRemovals()).isZero();
+        assertThat(ledger.stats().rows()).isEqualTo(12);
+        assertMatchesRollups();
+    }
+
+    @Test
+    void monthlyCategoryReportAndRunningBalanceComeFromTheLedger() {
+        transactionService.save(transaction(20.00, MAR_20, Transaction.TransactionType.EXPENSE, food));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CategoryReport report = reportService.report(JAN_10, MAR_20, CategoryReport.Granularity.MONTH, null, 0, 10);
+        assertThat(report.categories()).extracting(CategoryReport.Row::categoryName).containsExactly("Rent", "Food");
+        assertThat(report.categories().get(0).expensesByPeriod()).containsExactly(0.0, 800.0, 0.0);
+        assertThat(report.categories().get(0).incomesByPeriod()).containsExactly(2500.0, 0.0, 0.0);
+        assertThat(report.categories().get(1).expensesByPeriod()).containsExactly(1.0, 0.0, 20.0);
+        assertThat(report.total().transactions()).isEqualTo(13);
+        // A range starting mid-month leaves out the earlier days of that month
+        assertThat(reportService.report(FEB_03.plusDays(1), MAR_20, CategoryReport.Granularity.MONTH, null, 0, 10).categories())
+                .extracting(CategoryReport.Row::categoryName).containsExactly("Food");
+
+        double[] balances = reportService.runningBalance(JAN_10.minusDays(1), FEB_03).balances();
+        assertThat(balances).hasSize(26);
+        assertThat(balances[0]).isZero();
+        assertThat(balances[1]).isEqualTo(2499.0);
+        assertThat(balances[25]).isEqualTo(1699.0);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void reloadsAfterWritesOfAnotherInstance() throws InterruptedException {
+        // Written by another instance: no event reaches this one
+        jdbcTemplate.update("INSERT INTO transactions (id, amount, date, description, transaction_type, category_id) "
+                + "VALUES (NEXT VALUE FOR transactions_seq, 5.0, ?, 'elsewhere', 'EXPENSE', ?)", MAR_20, food.getId());
+
+        ledger.onRemoteLedgerChanged(new RemoteLedgerChangedEvent(1));
+        for (int i = 0; i < 100 && !ledger.ready(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(ledger.ready()).isTrue();
+        assertThat(ledger.sum(Transaction.TransactionType.EXPENSE, MAR_20, MAR_20)).isEqualTo(5.0);
+    }
+
+    private void assertMatchesRollups() {
+        LocalDate start = JAN_10.minusYears(1);
+        for (LocalDate end = JAN_10; !end.isAfter(MAR_20); end = end.plusDays(7)) {
+            for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+                assertThat(ledger.sum(type, start, end))
+                        .isEqualTo(rollupRepository.sumAmountBetweenDates(type, start, end).doubleValue());
+            }
+            assertThat(ledger.count(start, end)).isEqualTo(rollupRepository.countTransactionsBetweenDates(start, end));
+        }
+    }
+}
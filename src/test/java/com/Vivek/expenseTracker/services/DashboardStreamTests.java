@@ -0,0 +1,179 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.expense;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// The pusher is parked (one hour interval); the tests push by hand
+@SpringBootTest(properties = {"expense-tracker.dashboard-stream.interval=1h", "expense-tracker.dashboard-stream.heartbeat=1h"})
+@AutoConfigureMockMvc
+class DashboardStreamTests {
+
+    private static final Pattern LAST_ID = Pattern.compile("(?s).*id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardStream dashboardStream;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = categoryRepository.save(new Category("Groceries"));
+        transactionService.save(expense(40.0, LocalDate.now(), category));
+        dashboardStream.push();
+    }
+
+    @Test
+    void aBurstOfWritesIsPushedAsOneDelta() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/dashboard/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        assertThat(stream.getContentAsString()).startsWith("id:").contains("event:summary").contains("\"yearly\":40.0");
+
+        transactionService.save(expense(10.0, LocalDate.now(), category));
+        transactionService.save(expense(2.5, LocalDate.now(), category));
+        dashboardStream.push();
+
+        String events = awaitContent(stream, "event:delta");
+        String delta = events.substring(events.indexOf("event:delta"));
+        assertThat(delta).contains("\"weekly\":12.5").contains("\"transactions\":{")
+                .doesNotContain("incomes\":{\"");
+        assertThat(delta.indexOf("event:delta", 1)).isNegative();
+    }
+
+    @Test
+    void aReconnectingClientGetsOnlyWhatItMissed() throws Exception {
+        String first = mockMvc.perform(get("/dashboard/stream")).andReturn().getResponse().getContentAsString();
+        Matcher lastId = LAST_ID.matcher(first);
+        assertThat(lastId.find()).isTrue();
+
+        transactionService.save(expense(10.0, LocalDate.now(), category));
+        dashboardStream.push();
+        transactionService.save(expense(5.0, LocalDate.now(), category));
+        dashboardStream.push();
+
+        String resumed = mockMvc.perform(get("/dashboard/stream").header("Last-Event-ID", lastId.group(1)))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(resumed).contains("event:delta").contains("\"monthly\":15.0").doesNotContain("event:summary");
+
+        String unknown = mockMvc.perform(get("/dashboard/stream").header("Last-Event-ID", "elsewhere-7"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(unknown).contains("event:summary").contains("\"yearly\":55.0");
+    }
+
+    @Test
+    void writesOfAnotherInstanceSendEverySubscriberASummary() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/dashboard/stream")).andReturn().getResponse();
+        MockHttpServletResponse second = mockMvc.perform(get("/dashboard/stream")).andReturn().getResponse();
+
+        // Another instance adds 7.0 to today's expenses: only the shared version tells this one
+        jdbcTemplate.update("UPDATE daily_rollups SET total_amount = total_amount + 7, transaction_count = transaction_count + 1 "
+                + "WHERE rollup_date = ? AND transaction_type = 'EXPENSE'", LocalDate.now());
+        eventPublisher.publishEvent(new RemoteLedgerChangedEvent(0));
+        dashboardStream.push();
+
+        for (MockHttpServletResponse stream : List.of(first, second)) {
+            String events = awaitContent(stream, "\"yearly\":47.0");
+            assertThat(events.substring(events.indexOf("event:summary") + 1)).contains("event:summary")
+                    .doesNotContain("event:delta");
+        }
+    }
+
+    @Test
+    void aWriteCommittedWhileTheSummaryLoadsIsCountedOnce() throws Exception {
+        MockHttpServletResponse before = mockMvc.perform(get("/dashboard/stream")).andReturn().getResponse();
+        // Moves past the event id whose summary is loaded already
+        transactionService.save(expense(5.0, LocalDate.now(), category));
+        dashboardStream.push();
+
+        // The write is committed, but its after-commit listeners have not run yet when the
+        // second client subscribes and its summary is read
+        CompletableFuture<MockHttpServletResponse> during = new CompletableFuture<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completion) {
+                    Thread.ofVirtual().start(() -> {
+                        try {
+                            during.complete(mockMvc.perform(get("/dashboard/stream")).andReturn().getResponse());
+                        } catch (Exception e) {
+                            during.completeExceptionally(e);
+                        }
+                    });
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            transactionService.save(expense(10.0, LocalDate.now(), category));
+        });
+        dashboardStream.push();
+
+        // The client already on deltas gets it once
+        String events = awaitContent(before, "\"yearly\":10.0");
+        assertThat(events.split("event:delta")).hasSize(3);
+        assertThat(events.substring(events.lastIndexOf("event:delta"))).contains("\"yearly\":10.0");
+        // The new client has it in its summary, and no delta for it follows
+        Thread.sleep(200);
+        assertThat(during.get().getContentAsString()).contains("\"yearly\":55.0").doesNotContain("event:delta");
+    }
+
+    // Events after the first are sent by the subscriber's own thread
+    private static String awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+        for (int i = 0; i < 100 && !stream.getContentAsString().contains(expected); i++) {
+            Thread.sleep(20);
+        }
+        return stream.getContentAsString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.expense;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DescriptionIndexTests {
+
+    @Autowired
+    private DescriptionIndex descriptionIndex;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private LedgerVersion ledgerVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = categoryRepository.save(new Category("Food"));
+    }
+
+    @Test
+    void searchFollowsSavesEditsAndDeletes() {
+        Transaction cafe = transactionService.save(expense("Coffee at the corner cafe", 4.0, category));
+        Transaction beans = transactionService.save(expense("Bag of coffee beans", 18.0, category));
+        transactionService.save(expense("Monthly rent", 900.0, category));
+        descriptionIndex.rebuild();
+
+        assertThat(descriptionIndex.search("COFFEE")).hasValueSatisfying(ids ->
+                assertThat(ids).containsExactlyInAnyOrder(cafe.getId(), beans.getId()));
+        // Shorter than a trigram: the caller has to fall back to SQL
+        assertThat(descriptionIndex.search("co")).isEmpty();
+
+        transactionService.update(beans.getId(), expense("Tea leaves", 18.0, category));
+        transactionService.deleteById(cafe.getId());
+
+        assertThat(descriptionIndex.search("coffee")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(descriptionIndex.search("tea lea")).hasValueSatisfying(ids ->
+                assertThat(ids).containsExactly(beans.getId()));
+        assertThat(descriptionIndex.verify().consistent()).isTrue();
+    }
+
+    @Test
+    void listFilterUsesTheIndexInsteadOfLike() {
+        transactionService.save(expense("Coffee", 3.0, category));
+        transactionService.save(expense("Coffee", 30.0, category));
+        transactionService.save(expense("Groceries", 30.0, category));
+        descriptionIndex.rebuild();
+
+        CapturingStatementInspector.clear();
+        Page<TransactionView> page = transactionService.findTransactions("coffee", new BigDecimal("10"), ">=",
+                null, null, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(TransactionView::amount).containsExactly(30.0);
+        assertThat(CapturingStatementInspector.statements())
+                .allSatisfy(sql -> assertThat(sql.toLowerCase()).doesNotContain(" like "));
+    }
+
+    @Test
+    void verifyReportsRowsWrittenBehindTheIndex() {
+        transactionService.save(expense("Coffee", 3.0, category));
+        descriptionIndex.rebuild();
+        transactionRepository.save(expense("Unindexed", 5.0, category));
+
+        DescriptionIndex.Verification verification = descriptionIndex.verify();
+
+        assertThat(verification.checked()).isEqualTo(2);
+        assertThat(verification.missing()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildsAfterWritesOfAnotherInstance() throws InterruptedException {
+        transactionService.save(expense("Coffee", 3.0, category));
+        descriptionIndex.rebuild();
+
+        // Another instance inserts a row and bumps the shared version; no event reaches this one
+        jdbcTemplate.update("INSERT INTO transactions (id, amount, date, description, transaction_type, category_id) "
+                + "VALUES (NEXT VALUE FOR transactions_seq, 5.0, ?, 'Iced coffee', 'EXPENSE', ?)", LocalDate.now(), category.getId());
+        jdbcTemplate.update("UPDATE ledger_version SET version = version + 1, changed_at = ?", System.currentTimeMillis());
+        ledgerVersion.refresh();
+
+        // Searches fall back to SQL until the rebuild has the row
+        for (int i = 0; i < 100 && !descriptionIndex.stats().ready(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(descriptionIndex.search("coffee")).hasValueSatisfying(ids -> assertThat(ids).hasSize(2));
+        assertThat(descriptionIndex.verify().consistent()).isTrue();
+    }
+}
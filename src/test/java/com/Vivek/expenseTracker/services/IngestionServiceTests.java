@@ -0,0 +1,128 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.IngestAck;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"expense-tracker.ingest.batch-size=200", "expense-tracker.ingest.flush-interval=20ms"})
+class IngestionServiceTests {
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM ingestion_keys");
+        categoryService.save(new Category("Groceries"));
+    }
+
+    @Test
+    void entriesAreGroupCommittedAndKeysDeduplicated() throws Exception {
+        String prefix = UUID.randomUUID() + "-";
+        List<Map<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            records.add(record(prefix + i, String.valueOf(10 + i % 7)));
+        }
+        records.add(record(prefix + "bad", "abc"));
+        records.add(Map.of("date", "2026-05-01", "amount", "5", "type", "EXPENSE", "category", "Groceries"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<IngestAck> acks = ingestionService.enqueue(records).orElseThrow();
+        assertThat(acks).hasSize(502);
+        assertThat(acks.subList(0, 500)).allMatch(ack -> ack.status() == IngestAck.Status.QUEUED);
+        assertThat(acks.get(500).status()).isEqualTo(IngestAck.Status.REJECTED);
+        assertThat(acks.get(500).error()).contains("amount");
+        assertThat(acks.get(501).error()).isEqualTo("key is required");
+
+        List<IngestAck> committed = awaitCommitted(acks.subList(0, 500));
+        assertThat(committed).allMatch(ack -> ack.transactionId() != null);
+        assertThat(transactionRepository.count()).isEqualTo(500);
+        assertThat(rollupService.verify()).isEmpty();
+        // 500 entries in batches of up to 200, not one transaction each
+        assertThat(statistics.getTransactionCount()).isLessThan(50);
+
+        // A retry of the same keys writes nothing and points at the first transactions
+        List<IngestAck> retried = ingestionService.enqueue(records.subList(0, 500)).orElseThrow();
+        List<IngestAck> duplicates = awaitCommitted(retried);
+        assertThat(duplicates).allMatch(ack -> ack.status() == IngestAck.Status.DUPLICATE);
+        assertThat(duplicates.get(0).transactionId()).isEqualTo(committed.get(0).transactionId());
+        assertThat(transactionRepository.count()).isEqualTo(500);
+    }
+
+    @Test
+    void aKeyRepeatedInOneRequestIsQueuedOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        List<IngestAck> acks = ingestionService.enqueue(List.of(record(key, "12"), record(key, "12"))).orElseThrow();
+
+        assertThat(acks.get(0).status()).isEqualTo(IngestAck.Status.QUEUED);
+        assertThat(acks.get(1).status()).isEqualTo(IngestAck.Status.DUPLICATE);
+        assertThat(acks.get(1).ackId()).isEqualTo(acks.get(0).ackId());
+        awaitCommitted(acks.subList(0, 1));
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    private static Map<String, String> record(String key, String amount) {
+        return Map.of("key", key, "date", "2026-05-01", "description", "Feed " + key,
+                "amount", amount, "type", "EXPENSE", "category", "Groceries");
+    }
+
+    // Latest acknowledgements once none of them is still queued
+    private List<IngestAck> awaitCommitted(List<IngestAck> acks) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            List<IngestAck> current = acks.stream()
+                    .map(ack -> ingestionService.status(ack.ackId()).orElseThrow())
+                    .toList();
+            if (current.stream().noneMatch(ack -> ack.status() == IngestAck.Status.QUEUED)) {
+                assertThat(current).noneMatch(ack -> ack.status() == IngestAck.Status.FAILED);
+                return current;
+            }
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.CursorPage;
+import com.Vivek.expenseTracker.models.TransactionView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.expense;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"expense-tracker.tiers.refresh-interval=10ms", "expense-tracker.tiers.chunk-size=2"})
+class LedgerTierServiceTests {
+
+    @Autowired
+    private LedgerTierService ledgerTierService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @Autowired
+    private LedgerTiers ledgerTiers;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        clearArchive();
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        category = categoryRepository.save(new Category("Rent"));
+        for (int day = 1; day <= 3; day++) {
+            transactionService.save(expense(100.0 * day, LocalDate.of(2024, 3, day), category));
+        }
+        transactionService.save(expense(5.0, LocalDate.now(), category));
+        transactionService.save(expense(7.0, LocalDate.now(), category));
+    }
+
+    // Other test classes share the database and delete categories
+    @AfterEach
+    void clearArchive() {
+        jdbcTemplate.update("DELETE FROM transactions_archive");
+        jdbcTemplate.update("DELETE FROM archived_years");
+        ledgerTiers.refresh();
+    }
+
+    @Test
+    void anArchivedYearStaysListedAndSummarized() {
+        assertThat(ledgerTierService.archiveYear(2024)).isEqualTo(3);
+        assertThat(transactionRepository.count()).isEqualTo(2);
+        assertThat(archivedRepository.count()).isEqualTo(3);
+        assertThat(ledgerTiers.year(2024).state()).isEqualTo(LedgerTiers.State.ARCHIVED);
+
+        // Hot rows first, the archive fills the rest of the page
+        Page<TransactionView> first = transactionService.findTransactions(null, null, null, null, null,
+                PageRequest.of(0, 4, TransactionService.NEWEST_FIRST));
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.getContent()).extracting(TransactionView::amount).containsExactly(7.0, 5.0, 300.0, 200.0);
+        Page<TransactionView> second = transactionService.findTransactions(null, null, null, null, null,
+                PageRequest.of(1, 4, TransactionService.NEWEST_FIRST));
+        assertThat(second.getContent()).extracting(TransactionView::amount).containsExactly(100.0);
+
+        Page<TransactionView> year = transactionService.findTransactions(null, null, null,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), PageRequest.of(0, 10, TransactionService.NEWEST_FIRST));
+        assertThat(year.getTotalElements()).isEqualTo(3);
+
+        List<Double> walked = new ArrayList<>();
+        CursorPage<TransactionView> page = transactionService.findTransactionsByCursor(null, null, null, null, null, null, 2, true);
+        assertThat(page.totalElements()).isEqualTo(5);
+        while (true) {
+            page.content().forEach(row -> walked.add(row.amount()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = transactionService.findTransactionsByCursor(null, null, null, null, null, page.nextCursor(), 2, false);
+        }
+        assertThat(walked).containsExactly(7.0, 5.0, 300.0, 200.0, 100.0);
+
+        Long archivedId = archivedRepository.findAll().get(0).getId();
+        assertThat(transactionService.getTransactionView(archivedId)).isNotNull();
+        assertThatThrownBy(() -> transactionService.update(archivedId, expense(1.0, LocalDate.of(2024, 3, 1), category)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transactionService.deleteById(archivedId))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(archivedRepository.existsById(archivedId)).isTrue();
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void aRestoredYearIsBackInTheHotTable() {
+        ledgerTierService.archiveYear(2024);
+
+        assertThat(ledgerTierService.restoreYear(2024)).isEqualTo(3);
+        assertThat(transactionRepository.count()).isEqualTo(5);
+        assertThat(archivedRepository.count()).isZero();
+        assertThat(ledgerTiers.year(2024)).isNull();
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void onlyClosedYearsCanBeArchived() {
+        assertThatThrownBy(() -> ledgerTierService.archiveYear(LocalDate.now().getYear()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledgerTierService.restoreYear(2024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
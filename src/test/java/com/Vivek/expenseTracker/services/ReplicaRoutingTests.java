@@ -0,0 +1,135 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import com.Vivek.expenseTracker.models.TransactionView;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Two embedded databases, a primary and a replica, with nothing replicating between them:
+// which rows come back shows which database answered. The first configured replica does not exist.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "expense-tracker.search-index.enabled=false",
+        "expense-tracker.datasource.replica-retry-interval=1h"
+})
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingTests {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+        JdbcTemplate replica = replica();
+        replica.update("MERGE INTO categories (id, name) KEY (id) VALUES (1, 'Replica')");
+        replica.update("MERGE INTO transactions (id, amount, date, description, transaction_type, category_id) KEY (id) "
+                + "VALUES (1, 42, CURRENT_DATE, 'replica row', 'EXPENSE', 1)");
+        replica.update("MERGE INTO daily_rollups KEY (category_id, rollup_date, transaction_type) "
+                + "VALUES (CURRENT_DATE, 'EXPENSE', 1, 42, 1)");
+
+        registry.add("expense-tracker.datasource.replicas[0].url", () -> "jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        registry.add("expense-tracker.datasource.replicas[0].username", () -> "sa");
+        registry.add("expense-tracker.datasource.replicas[0].connection-timeout", () -> "250ms");
+        registry.add("expense-tracker.datasource.replicas[1].url", () -> REPLICA_URL + ";IFEXISTS=TRUE");
+        registry.add("expense-tracker.datasource.replicas[1].username", () -> "sa");
+        registry.add("expense-tracker.datasource.replicas[1].connection-timeout", () -> "250ms");
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class) == 0) {
+            Transaction transaction = new Transaction();
+            transaction.setAmount(7.0);
+            transaction.setDate(LocalDate.now());
+            transaction.setDescription("primary row");
+            transaction.setTransactionType(Transaction.TransactionType.EXPENSE);
+            transaction.setCategory(categoryRepository.save(new Category("Primary")));
+            transactionService.save(transaction);
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyWorkRunsOnTheReplicaAndWritesOnThePrimary() {
+        assertThat(transactionService.findTransactions(null, null, null, null, null, PageRequest.of(0, 10)))
+                .extracting(TransactionView::description).containsExactly("replica row");
+        // Aggregates are kept in the cache, so they are loaded from the primary
+        assertThat(transactionService.getTotalExpenses()).containsEntry("yearly", 7.0);
+
+        assertThat(jdbcTemplate.queryForList("SELECT description FROM transactions", String.class))
+                .containsExactly("primary row");
+        assertThat(replicaDataSource.unavailableReplicas()).containsExactly("replica-0");
+
+        // Explicit credentials go to the primary, whose pool does not take them
+        assertThatThrownBy(() -> replicaDataSource.getConnection("sa", ""))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    @Test
+    @Order(2)
+    void writerReadsFromThePrimaryWithinTheWindow() throws Exception {
+        assertThat(mockMvc.perform(get("/transactions")).andReturn().getResponse().getContentAsString())
+                .contains("replica row").doesNotContain("primary row");
+
+        Cookie pin = mockMvc.perform(get("/transactions/delete/999999")).andReturn().getResponse()
+                .getCookie("primary-reads-until");
+        assertThat(pin).isNotNull();
+
+        assertThat(mockMvc.perform(get("/transactions").cookie(pin)).andReturn().getResponse().getContentAsString())
+                .contains("primary row").doesNotContain("replica row");
+    }
+
+    @Test
+    @Order(3)
+    void readsFallBackToThePrimaryWhenNoReplicaIsReachable() throws Exception {
+        replica().execute("SHUTDOWN");
+        // Past Hikari's 500ms window in which a recently used connection is handed out unchecked
+        Thread.sleep(600);
+
+        assertThat(transactionService.findTransactions(null, null, null, null, null, PageRequest.of(0, 10)))
+                .extracting(TransactionView::description).containsExactly("primary row");
+        assertThat(replicaDataSource.unavailableReplicas()).containsExactly("replica-0", "replica-1");
+    }
+}
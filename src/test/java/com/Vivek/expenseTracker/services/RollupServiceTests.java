@@ -0,0 +1,87 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RollupServiceTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @Autowired
+    private AggregateCache aggregateCache;
+
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        aggregateCache.clear();
+        food = categoryRepository.save(new Category("Food"));
+        rent = categoryRepository.save(new Category("Rent"));
+    }
+
+    @Test
+    void rollupsFollowInsertEditAndDelete() {
+        LocalDate today = LocalDate.now();
+        Transaction lunch = transactionService.save(transaction(12.50, today, Transaction.TransactionType.EXPENSE, food));
+        Transaction dinner = transactionService.save(transaction(30.25, today, Transaction.TransactionType.EXPENSE, food));
+        transactionService.save(transaction(1000.00, today, Transaction.TransactionType.INCOME, rent));
+
+        assertThat(transactionService.getTotalExpenses().get("yearly")).isEqualTo(42.75);
+        assertThat(transactionService.getTotalIncomes().get("yearly")).isEqualTo(1000.00);
+        assertThat(transactionService.getTotalTransactions().get("yearly")).isEqualTo(3.0);
+
+        // Move the lunch to another category and amount, then drop the dinner
+        transactionService.update(lunch.getId(), transaction(20.00, today, Transaction.TransactionType.EXPENSE, rent));
+        transactionService.deleteById(dinner.getId());
+
+        assertThat(transactionService.getTotalExpenses().get("yearly")).isEqualTo(20.00);
+        assertThat(transactionService.getTotalTransactions().get("yearly")).isEqualTo(2.0);
+        assertThat(transactionService.getTotalExpensesByMonth().get(today.getMonth().name())).isEqualTo(20.00);
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void verifyDetectsDriftAndRebuildRepairsIt() {
+        transactionService.save(transaction(5.00, LocalDate.now(), Transaction.TransactionType.EXPENSE, food));
+        // Written behind the service's back, so the rollups do not know about it
+        transactionRepository.save(transaction(7.00, LocalDate.now(), Transaction.TransactionType.EXPENSE, food));
+
+        assertThat(rollupService.verify()).hasSize(1);
+
+        rollupService.rebuild();
+
+        assertThat(rollupService.verify()).isEmpty();
+        assertThat(transactionService.getTotalExpenses().get("yearly")).isEqualTo(12.00);
+    }
+}
@@ -0,0 +1,89 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.ImportReport;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SyntheticDataGeneratorTests {
+
+    private static final SyntheticDataGenerator.Plan PLAN =
+            new SyntheticDataGenerator.Plan(20, 5000, 2, LocalDate.of(2024, 6, 30), 7);
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void samePlanGivesTheSameRowsInDateOrder() {
+        List<Category> categories = SyntheticDataGenerator.categoryNames(PLAN.categories()).stream()
+                .map(Category::new)
+                .toList();
+        List<String> first = rows(PLAN, categories);
+        assertThat(rows(PLAN, categories)).isEqualTo(first);
+        assertThat(first).hasSize(5000);
+        assertThat(first.stream().map(row -> row.substring(0, 10)).toList()).isSorted();
+        assertThat(first.get(0)).startsWith("2022-07-01");
+        assertThat(first.get(first.size() - 1)).startsWith("2024-06-30");
+        assertThat(rows(new SyntheticDataGenerator.Plan(20, 5000, 2, PLAN.endDate(), 8), categories)).isNotEqualTo(first);
+
+        // Rent is paid once a month, on the 1st
+        assertThat(first.stream().filter(row -> row.contains("Monthly rent"))).hasSize(24)
+                .allMatch(row -> row.substring(8, 10).equals("01"));
+        assertThat(SyntheticDataGenerator.categoryNames(20)).doesNotHaveDuplicates()
+                .contains("Salary", "Groceries 2", "Restaurants 2");
+    }
+
+    @Test
+    void generatedRowsKeepTheRollupsInStep() {
+        categoryRepository.save(new Category("Groceries"));
+
+        ImportReport report = generator.generate(PLAN);
+
+        assertThat(report.rowsImported()).isEqualTo(5000);
+        assertThat(transactionRepository.count()).isEqualTo(5000);
+        // The existing category is reused
+        assertThat(categoryRepository.count()).isEqualTo(20);
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    // One "date description amount type category" line per row
+    private static List<String> rows(SyntheticDataGenerator.Plan plan, List<Category> categories) {
+        List<String> rows = new ArrayList<>();
+        SyntheticDataGenerator.rows(plan, categories, (Transaction row) -> rows.add(row.getDate() + " " + row.getDescription()
+                + " " + row.getAmount() + " " + row.getTransactionType() + " " + row.getCategory().getName()));
+        return rows;
+    }
+}
@@ -0,0 +1,37 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+
+import java.time.LocalDate;
+
+// Unsaved transactions for the tests; the description only matters to the search tests
+public final class TestTransactions {
+
+    private TestTransactions() {
+    }
+
+    public static Transaction expense(double amount, LocalDate date, Category category) {
+        return transaction(amount, date, Transaction.TransactionType.EXPENSE, category);
+    }
+
+    // Dated today
+    public static Transaction expense(String description, double amount, Category category) {
+        return transaction(description, amount, LocalDate.now(), Transaction.TransactionType.EXPENSE, category);
+    }
+
+    public static Transaction transaction(double amount, LocalDate date, Transaction.TransactionType type, Category category) {
+        return transaction("test", amount, date, type, category);
+    }
+
+    public static Transaction transaction(String description, double amount, LocalDate date,
+                                          Transaction.TransactionType type, Category category) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        transaction.setDescription(description);
+        transaction.setTransactionType(type);
+        transaction.setCategory(category);
+        return transaction;
+    }
+}
@@ -0,0 +1,92 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.BulkReport;
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.Vivek.expenseTracker.services.TestTransactions.expense;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "expense-tracker.bulk.chunk-size=2")
+class TransactionBulkServiceTests {
+
+    @Autowired
+    private TransactionBulkService bulkService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    private Category food;
+    private Category travel;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        food = categoryRepository.save(new Category("Food"));
+        travel = categoryRepository.save(new Category("Travel"));
+        for (int i = 1; i <= 5; i++) {
+            transactionService.save(expense("taxi " + i, i, food));
+        }
+        transactionService.save(expense("lunch", 12.0, food));
+    }
+
+    @Test
+    void recategorizeAndDeleteWorkInChunks() {
+        BulkReport moved = bulkService.recategorize(TransactionSpecifications.descriptionContains("taxi"), travel.getId());
+        assertThat(moved.rowsAffected()).isEqualTo(5);
+        assertThat(moved.chunks()).isEqualTo(3);
+        assertThat(transactionRepository.count(TransactionSpecifications.inCategory(travel.getId()))).isEqualTo(5);
+
+        // Already in the category: nothing to do
+        assertThat(bulkService.recategorize(TransactionSpecifications.descriptionContains("taxi"), travel.getId())
+                .rowsAffected()).isZero();
+
+        List<Long> ids = transactionRepository.findAll().stream().limit(3).map(Transaction::getId).toList();
+        BulkReport deleted = bulkService.delete(TransactionSpecifications.idIn(ids));
+        assertThat(deleted.rowsAffected()).isEqualTo(3);
+        assertThat(transactionRepository.count()).isEqualTo(3);
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void mergeMovesEveryRowAndDeletesTheSource() {
+        BulkReport merged = bulkService.mergeCategory(food.getId(), travel.getId());
+
+        assertThat(merged.rowsAffected()).isEqualTo(6);
+        assertThat(categoryRepository.existsById(food.getId())).isFalse();
+        assertThat(categoryCache.findByName("Food")).isEmpty();
+        assertThat(transactionRepository.count(TransactionSpecifications.inCategory(travel.getId()))).isEqualTo(6);
+        assertThat(rollupService.verify()).isEmpty();
+
+        assertThatThrownBy(() -> bulkService.mergeCategory(travel.getId(), travel.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
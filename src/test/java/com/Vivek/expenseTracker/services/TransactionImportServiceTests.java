@@ -0,0 +1,150 @@
+package com.Vivek.expenseTracker.services;
+
+import com.Vivek.expenseTracker.models.Category;
+import com.Vivek.expenseTracker.models.ImportReport;
+import com.Vivek.expenseTracker.models.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "expense-tracker.import.chunk-size=1000")
+class TransactionImportServiceTests {
+
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    @Autowired
+    private MonthlyExpenseRepository monthlyRepository;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+        categoryRepository.deleteAll();
+        categoryService.save(new Category("Groceries"));
+        categoryService.save(new Category("Salary"));
+    }
+
+    @Test
+    void csvRowsAreInsertedInBatchesAndBadRowsReported() {
+        StringBuilder csv = new StringBuilder("date,description,amount,type,category\n");
+        for (int i = 0; i < 2500; i++) {
+            csv.append("2026-05-").append(String.format("%02d", i % 28 + 1))
+                    .append(",\"Shop, aisle ").append(i).append("\",").append(10 + i % 7).append(",expense,groceries\n");
+        }
+        csv.append("2026-05-01,Bonus,abc,INCOME,Salary\n");        // line 2502: bad amount
+        csv.append("2026-05-01,Bonus,100,INCOME,Lottery\n");       // line 2503: unknown category
+        csv.append("2026-05-01,Bonus,-5,INCOME,Salary\n");         // line 2504: fails validation
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ImportReport report = importService.importTransactions(stream(csv.toString()), TransactionImportService.Format.CSV);
+
+        assertThat(report.rowsRead()).isEqualTo(2503);
+        assertThat(report.rowsImported()).isEqualTo(2500);
+        assertThat(report.rowsRejected()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(2502L, 2503L, 2504L);
+        assertThat(report.rowsPerSecond()).isPositive();
+        assertThat(transactionRepository.count()).isEqualTo(2500);
+        assertThat(transactionRepository.findAll().get(0).getDescription()).startsWith("Shop, aisle ");
+
+        // 2500 single-row inserts would be thousands of JDBC executions
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2500);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(150);
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    @Test
+    void jsonArraysAndNdjsonAreBothAccepted() {
+        String array = "[{\"date\":\"2026-01-02\",\"description\":\"Pay\",\"amount\":1000,\"type\":\"INCOME\",\"category\":\"Salary\"}," +
+                "{\"date\":\"2026-01-03\",\"description\":\"Food\",\"amount\":12.5,\"type\":\"EXPENSE\",\"category\":\"Groceries\"}]";
+        String ndjson = "{\"date\":\"2026-01-04\",\"description\":\"Food\",\"amount\":7,\"type\":\"EXPENSE\",\"category\":\"Groceries\"}\n" +
+                "{\"date\":\"not a date\",\"description\":\"Food\",\"amount\":7,\"type\":\"EXPENSE\",\"category\":\"Groceries\"}\n" +
+                "{\"date\":\"2026-01-05\",\"description\":null,\"amount\":7,\"type\":\"EXPENSE\",\"category\":\"Groceries\"}\n" +
+                "{\"date\":\"2026-01-05\",\"description\":\"Food\",\"amount\":7,\"type\":\"EXPENSE\",\"category\":null}\n";
+
+        ImportReport fromArray = importService.importTransactions(stream(array), TransactionImportService.Format.JSON);
+        ImportReport fromLines = importService.importTransactions(stream(ndjson), TransactionImportService.Format.JSON);
+
+        assertThat(fromArray.rowsImported()).isEqualTo(2);
+        assertThat(fromLines.rowsImported()).isEqualTo(1);
+        assertThat(fromLines.errors()).extracting(ImportReport.RowError::line).containsExactly(2L, 3L, 4L);
+        // Nulls are missing values, not the text "null"
+        assertThat(fromLines.errors()).extracting(ImportReport.RowError::message).endsWith(
+                "Description is required", "Category is required");
+        assertThat(transactionRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void csvExportImportsBackWithLineBreaksInDescriptions() {
+        String[] descriptions = {"Weekly shop\nmilk, eggs", "Said \"thanks\"\n\nand left", "Plain"};
+        Category groceries = categoryRepository.findAll().get(0);
+        for (int i = 0; i < descriptions.length; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setDate(LocalDate.of(2026, 2, i + 1));
+            transaction.setDescription(descriptions[i]);
+            transaction.setAmount(i + 1.0);
+            transaction.setTransactionType(Transaction.TransactionType.EXPENSE);
+            transaction.setCategory(groceries);
+            transactionService.save(transaction);
+        }
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.export(Specification.where(null), null, TransactionExportService.Format.CSV, exported);
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        monthlyRepository.deleteAll();
+
+        ImportReport report = importService.importTransactions(
+                new ByteArrayInputStream(exported.toByteArray()), TransactionImportService.Format.CSV);
+
+        assertThat(report.rowsImported()).isEqualTo(3);
+        assertThat(report.rowsRejected()).isZero();
+        assertThat(transactionRepository.findAll()).extracting(Transaction::getDescription)
+                .containsExactlyInAnyOrder(descriptions);
+        assertThat(rollupService.verify()).isEmpty();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
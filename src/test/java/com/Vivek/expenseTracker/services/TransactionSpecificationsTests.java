@@ -0,0 +1,80 @@
+package com.Vivek.expenseTracker.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionSpecificationsTests {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void onlyPresentFiltersReachTheSql() {
+        String[] operators = {"=", "<=", ">="};
+        // Every combination of description, amount, start date and end date
+        for (int mask = 0; mask < 16; mask++) {
+            for (String operator : operators) {
+                boolean description = (mask & 1) != 0;
+                boolean amount = (mask & 2) != 0;
+                boolean startDate = (mask & 4) != 0;
+                boolean endDate = (mask & 8) != 0;
+
+                String where = whereClause(
+                        description ? "coffee" : null,
+                        amount ? new BigDecimal("12.50") : null,
+                        operator,
+                        startDate ? LocalDate.of(2026, 1, 1) : null,
+                        endDate ? LocalDate.of(2026, 12, 31) : null);
+                String combination = "mask " + mask + " operator " + operator + ": " + where;
+
+                assertThat(where).as(combination).doesNotContain("is null").doesNotContain(" or ");
+                assertThat(where.contains("description like ?")).as(combination).isEqualTo(description);
+                assertThat(where.contains("amount" + operator + "?")).as(combination).isEqualTo(amount);
+                assertThat(where.contains("date>=?")).as(combination).isEqualTo(startDate);
+                assertThat(where.contains("date<=?")).as(combination).isEqualTo(endDate);
+                if (mask == 0) {
+                    assertThat(where).as(combination).isEmpty();
+                }
+            }
+        }
+    }
+
+    @Test
+    void likeWildcardsInTheSearchTextAreEscaped() {
+        transactionRepository.findAll(TransactionSpecifications.descriptionContains("100%_off"));
+        // The pattern itself is a bind parameter, the SQL only declares the escape character
+        assertThat(lastSelect()).contains("like ? escape '\\'");
+    }
+
+    // The WHERE clause of the page query for one filter combination, lower-cased, "" when absent
+    private String whereClause(String description, BigDecimal amount, String amountFilter,
+                               LocalDate startDate, LocalDate endDate) {
+        CapturingStatementInspector.clear();
+        transactionRepository.findFilteredTransactions(description, amount, amountFilter, startDate, endDate,
+                PageRequest.of(0, 10));
+        String sql = lastSelect().toLowerCase();
+        int where = sql.indexOf(" where ");
+        if (where < 0) {
+            return "";
+        }
+        int end = sql.indexOf(" offset ", where);
+        if (end < 0) {
+            end = sql.indexOf(" fetch ", where);
+        }
+        return sql.substring(where + 7, end < 0 ? sql.length() : end);
+    }
+
+    private static String lastSelect() {
+        List<String> statements = CapturingStatementInspector.statements();
+        return statements.stream().filter(sql -> sql.toLowerCase().startsWith("select")).findFirst().orElseThrow();
+    }
+}